@@ -0,0 +1,125 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import support.graph.CS16Decorator;
+import support.graph.CS16Vertex;
+
+/**
+ * The shared part of the decorators that store their decorations in
+ * arrays indexed by vertex number instead of in a HashMap. A decoration
+ * is found with one array read, without hashing the vertex.
+ *
+ * Alongside the values, the decorated vertex is kept in each slot, so a
+ * vertex only has a decoration if it is the vertex in its slot. That way
+ * a vertex that reuses the number of a removed one doesn't see the old
+ * decoration. The arrays grow to fit the highest vertex number decorated;
+ * sizing them up front, with the highest vertex number plus one, saves
+ * the copying.
+ */
+public abstract class AbstractVertexDecorator<V, D> implements CS16Decorator<CS16Vertex<V>, D> {
+
+    // initial capacity of the arrays when no capacity is given
+    private static final int INITIAL_CAPACITY = 16;
+
+    // the decorated vertex in each slot, or null
+    private CS16Vertex<V>[] _keys;
+    private int _size;
+
+    @SuppressWarnings("unchecked")
+    protected AbstractVertexDecorator(int capacity) {
+        _keys = new CS16Vertex[Math.max(capacity, INITIAL_CAPACITY)];
+    }
+
+    /**
+     * Returns true if there is a decoration for the given key, false otherwise.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param key
+     *          a key that may or may not be in your decorator
+     * @return a boolean value that returns true if the key is valid
+     */
+    @Override
+    public boolean hasDecoration(CS16Vertex<V> key) {
+        int number = key.getVertexNumber();
+        return number < _keys.length && _keys[number] == key;
+    }
+
+    /**
+     * Returns a new Set of all keys for this decoration.
+     *
+     * <p>
+     * This runs in O(n) time, where n is the length of the arrays.
+     * </p>
+     *
+     * @return a Set of all keys in your decorator
+     */
+    @Override
+    public Set<CS16Vertex<V>> getKeys() {
+        Set<CS16Vertex<V>> keys = new HashSet<>(2 * _size);
+        for(CS16Vertex<V> key : _keys){
+            if(key != null){
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the length of the arrays, one more than the highest vertex
+     * number that fits without growing them.
+     */
+    protected int capacity() {
+        return _keys.length;
+    }
+
+    /**
+     * Returns the number of decorated vertices.
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Makes key the decorated vertex in its slot, growing the arrays if its
+     * number doesn't fit, and returns the slot.
+     */
+    protected int claim(CS16Vertex<V> key) {
+        int number = key.getVertexNumber();
+        if(number >= _keys.length){
+            int capacity = Math.max(number + 1, 2 * _keys.length);
+            _keys = Arrays.copyOf(_keys, capacity);
+            this.growValues(capacity);
+        }
+        if(_keys[number] != key){
+            if(_keys[number] == null){
+                _size++;
+            }
+            _keys[number] = key;
+        }
+        return number;
+    }
+
+    /**
+     * Empties the slot of key, if key is decorated, and returns whether it
+     * was.
+     */
+    protected boolean release(CS16Vertex<V> key) {
+        if(!this.hasDecoration(key)){
+            return false;
+        }
+        _keys[key.getVertexNumber()] = null;
+        _size--;
+        return true;
+    }
+
+    /**
+     * Grows the value arrays to the given capacity.
+     */
+    protected abstract void growValues(int capacity);
+}
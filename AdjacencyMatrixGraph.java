@@ -3,8 +3,12 @@ package graph;
 import static support.graph.Constants.MAX_VERTICES;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.Stack;
@@ -27,18 +31,48 @@ import support.graph.NodeSequence;
  * attempting to write this program. An adjacency matrix consists of a 2D array
  * of Vertices, with each vertex of the graph appearing in both dimensions.
  *
+ * By default the matrix is MAX_VERTICES x MAX_VERTICES. Vertex numbers
+ * start at 1, so in such a fixed graph the vertex numbered MAX_VERTICES has
+ * no row or column in it and can't take edges. A graph made with
+ * growable() instead starts with a small matrix and doubles it whenever a
+ * vertex number no longer fits, so it has no vertex cap and small graphs
+ * don't pay for one.
+ *
+ * The numbers of removed vertices are kept on a free list and handed out
+ * again by insertVertex, so a graph that keeps adding and removing
+ * vertices never runs past the matrix. compact() renumbers the remaining
+ * vertices 1 to |V| and, for a growable graph, shrinks the matrix to fit.
+ *
+ * For loading large edge lists, ensureCapacity sizes the vertex and edge
+ * sets (and a growable matrix) once, and insertEdges inserts a whole batch
+ * of edges in a single pass.
+ *
  */
-public class AdjacencyMatrixGraph<V> implements Graph<V> {
+public class AdjacencyMatrixGraph<V> implements BulkLoadable<V> {
+
+    // side length of the matrix a growable graph starts with
+    private static final int INITIAL_CAPACITY = 16;
 
     // The underlying data structure of your graph: the adjacency matrix
     private CS16Edge<V>[][] _adjMatrix;
     // Sets to store the vertices and edges of your graph
     private Set<CS16Vertex<V>> _vertices;
     private Set<CS16Edge<V>> _edges;
-    //number of vertices
-    private int _numVertices;
+    // per-vertex edge sets, indexed by vertex number. For an undirected
+    // graph both arrays are the same array of incident edges. Numbers start
+    // at 1, so the arrays are one longer than the matrix to also hold the
+    // last vertex of a full fixed matrix, numbered MAX_VERTICES.
+    private Set<CS16Edge<V>>[] _outEdges;
+    private Set<CS16Edge<V>>[] _inEdges;
+    // highest vertex number handed out so far
+    private int _maxVertexNumber;
+    // stack of the numbers of removed vertices, ready to be reused
+    private int[] _freeNumbers;
+    private int _numFree;
     // boolean that keeps track of directedness of graph
     private boolean _directed;
+    // whether the matrix grows past MAX_VERTICES as vertices are added
+    private boolean _growable;
 
     /**
      * Constructor for your Graph, where among other things, you will most
@@ -49,13 +83,37 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
      * This runs in O(1) time.
      */
     public AdjacencyMatrixGraph(boolean directed) {
-        _adjMatrix = this.makeEmptyEdgeArray();
+        this(directed, false);
+    }
+
+    /**
+     * Constructor that also chooses whether the matrix is growable. It is
+     * private so that the boolean constructor stays the only public one.
+     */
+    private AdjacencyMatrixGraph(boolean directed, boolean growable) {
+        _growable = growable;
+        _adjMatrix = this.makeMatrix();
         _vertices = new HashSet<>();
         _edges = new HashSet<>();
-        _numVertices = 0;
+        _maxVertexNumber = 0;
+        _freeNumbers = new int[INITIAL_CAPACITY];
+        _numFree = 0;
         if(directed){
             _directed = true;
         }
+        this.makeEdgeLists();
+    }
+
+    /**
+     * Returns an empty graph whose matrix starts small and grows
+     * geometrically as vertices are inserted, instead of being allocated
+     * at MAX_VERTICES x MAX_VERTICES up front.
+     *
+     * @param directed whether the graph will be directed
+     * @return the new graph
+     */
+    public static <V> AdjacencyMatrixGraph<V> growable(boolean directed) {
+        return new AdjacencyMatrixGraph<>(directed, true);
     }
 
     /**
@@ -91,10 +149,11 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
     }
 
     /**
-     * Inserts a new Vertex into the Graph.
+     * Inserts a new Vertex into the Graph, reusing the number of a removed
+     * vertex if there is one.
      *
      * <p>
-     * This runs in O(1) time.
+     * This runs in O(1) time, amortized for a growable graph.
      * </p>
      * 
      * @param vertElement
@@ -105,8 +164,26 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
 
         CS16Vertex<V> newVertex = new GraphVertex<>(vertElement);
 
-        _numVertices++;
-       newVertex.setVertexNumber(_numVertices);
+        int number;
+        if(_numFree > 0){
+            number = _freeNumbers[--_numFree];
+        } else {
+            _maxVertexNumber++;
+            number = _maxVertexNumber;
+        }
+       newVertex.setVertexNumber(number);
+
+        if(_growable && number >= _adjMatrix.length){
+            this.growMatrix(number + 1);
+        }
+
+        // clear() leaves emptied sets behind to be reused
+        if(_outEdges[number] == null){
+            _outEdges[number] = new LinkedHashSet<>();
+        }
+        if(_directed && _inEdges[number] == null){
+            _inEdges[number] = new LinkedHashSet<>();
+        }
 
         _vertices.add(newVertex);
         return newVertex;
@@ -145,13 +222,104 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
             _adjMatrix[v2.getVertexNumber()][v1.getVertexNumber()] = newEdge;
         }
 
+        _outEdges[v1.getVertexNumber()].add(newEdge);
+        if(v1 != v2 || _directed){
+            _inEdges[v2.getVertexNumber()].add(newEdge);
+        }
+
         return newEdge;
     }
 
     /**
-     * Removes a Vertex from the graph.
+     * Sizes the vertex and edge sets, and a growable matrix, to hold the
+     * given numbers of new vertices and edges without growing again. The
+     * fixed MAX_VERTICES matrix is already as big as it gets.
+     *
+     * <p>
+     * This runs in O(|V| + |E|) time, plus the time to grow the matrix.
+     * </p>
+     *
+     * @param expectedVertices the number of vertices about to be inserted
+     * @param expectedEdges the number of edges about to be inserted
+     */
+    @Override
+    public void ensureCapacity(int expectedVertices, int expectedEdges) {
+        int maxNumber = _maxVertexNumber + Math.max(0, expectedVertices - _numFree);
+        if(_growable && maxNumber >= _adjMatrix.length){
+            this.growMatrix(maxNumber + 1);
+        }
+
+        // a HashSet can't be resized in place, so a bigger one takes over
+        if(expectedVertices > 0){
+            Set<CS16Vertex<V>> vertices = new HashSet<>(hashCapacity(_vertices.size() + expectedVertices));
+            vertices.addAll(_vertices);
+            _vertices = vertices;
+        }
+        if(expectedEdges > 0){
+            Set<CS16Edge<V>> edges = new HashSet<>(hashCapacity(_edges.size() + expectedEdges));
+            edges.addAll(_edges);
+            _edges = edges;
+        }
+    }
+
+    /**
+     * Inserts numEdges edges in one pass, exactly as insertEdge would,
+     * without going through the public method for each one.
+     *
+     * <p>
+     * This runs in O(numEdges) time.
+     * </p>
+     *
+     * @param vertices the vertices the sources and targets index into
+     * @param sources the index in vertices of the first vertex of each edge
+     * @param targets the index in vertices of the second vertex of each edge
+     * @param weights the element of each edge
+     * @param numEdges the number of edges to insert
+     * @throws InvalidVertexException
+     *             Thrown when a vertex an edge refers to is null, in which
+     *             case none of the edges are inserted.
+     */
+    @Override
+    public void insertEdges(CS16Vertex<V>[] vertices, int[] sources, int[] targets, int[] weights, int numEdges)
+            throws InvalidVertexException {
+        if(sources.length < numEdges || targets.length < numEdges || weights.length < numEdges){
+            throw new IllegalArgumentException("The edge arrays are shorter than numEdges.");
+        }
+
+        // checking the whole batch first, so a bad edge leaves the graph as it was
+        for(int k = 0; k < numEdges; k++){
+            if(vertices[sources[k]] == null || vertices[targets[k]] == null){
+                throw new InvalidVertexException("A vertex is null.");
+            }
+        }
+
+        for(int k = 0; k < numEdges; k++){
+            CS16Vertex<V> v1 = vertices[sources[k]];
+            CS16Vertex<V> v2 = vertices[targets[k]];
+            int i = v1.getVertexNumber();
+            int j = v2.getVertexNumber();
+
+            CS16Edge<V> newEdge = new GraphEdge<>(weights[k], v1, v2);
+            _edges.add(newEdge);
+
+            _adjMatrix[i][j] = newEdge;
+            if(!_directed){
+                _adjMatrix[j][i] = newEdge;
+            }
+
+            _outEdges[i].add(newEdge);
+            if(i != j || _directed){
+                _inEdges[j].add(newEdge);
+            }
+        }
+    }
+
+    /**
+     * Removes a Vertex from the graph, along with its incident edges, which
+     * are found through its own edge sets rather than by checking every
+     * other vertex.
      * <p>
-     * This runs in O(|V|) time.
+     * This runs in O(deg(v)) time.
      * </p>
      *
      * @param vert
@@ -167,16 +335,50 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
             throw new InvalidVertexException("A vertex is null.");
         }
 
-        Iterator<CS16Vertex<V>> it = vertices();
-        while(it.hasNext()){
-            CS16Vertex<V> vertex = it.next();
-            if(this.areAdjacent(vert, vertex)){
-               this.removeEdge(this.connectingEdge(vert, vertex));
+        if(_vertices.remove(vert)){
+            this.detachEdges(vert.getVertexNumber(), null);
+            this.freeNumber(vert.getVertexNumber());
+        }
+        return vert.element();
+    }
+
+    /**
+     * Removes many vertices, along with their incident edges, in one pass.
+     * An edge between two removed vertices is only detached once, and the
+     * edge sets of removed vertices are dropped whole instead of emptied.
+     * Vertices that aren't in the graph are skipped.
+     * <p>
+     * This runs in O(k + the sum of the removed vertices' degrees) time,
+     * for k vertices passed in.
+     * </p>
+     *
+     * @param verts
+     *            The Vertices to remove.
+     * @throws InvalidVertexException
+     *             Thrown when any of the Vertices is null.
+     */
+    public void removeVertices(Collection<? extends CS16Vertex<V>> verts) throws InvalidVertexException {
+
+        Set<Integer> removed = new HashSet<>();
+        List<CS16Vertex<V>> toRemove = new ArrayList<>(verts.size());
+
+        for(CS16Vertex<V> vert : verts){
+            if(vert == null){
+                throw new InvalidVertexException("A vertex is null.");
+            }
+            if(_vertices.contains(vert) && removed.add(vert.getVertexNumber())){
+                toRemove.add(vert);
             }
         }
 
-        _vertices.remove(vert);
-        return vert.element();
+        for(CS16Vertex<V> vert : toRemove){
+            this.detachEdges(vert.getVertexNumber(), removed);
+        }
+
+        for(CS16Vertex<V> vert : toRemove){
+            _vertices.remove(vert);
+            this.freeNumber(vert.getVertexNumber());
+        }
     }
 
     /**
@@ -202,13 +404,21 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
         int i = edge.getVertexOne().getVertexNumber();
         int j = edge.getVertexTwo().getVertexNumber();
 
+        // an edge that isn't in the graph (anymore) has nothing to clean up
+        if(!_edges.remove(edge)){
+            return edge.element();
+        }
+
         _adjMatrix[i][j] = null;
 
         if(!_directed){
             _adjMatrix[j][i] = null;
         }
 
-        _edges.remove(edge);
+        _outEdges[i].remove(edge);
+        if(i != j || _directed){
+            _inEdges[j].remove(edge);
+        }
 
         return edge.element();
     }
@@ -257,7 +467,7 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
     /**
      * Returns an Iterator over all the Edges that are incoming to this Vertex.
      * <p>
-     * This runs in O(|V|) time;
+     * This runs in O(1) time; iterating takes O(deg(v)).
      * </p>
      * 
      *
@@ -273,30 +483,13 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
             throw new InvalidVertexException("A vertex is null.");
         }
 
-        ArrayList<CS16Edge<V>> incomingEdges = new ArrayList<>();
-
-        Iterator<CS16Edge<V>> it = edges();
-
-        while(it.hasNext()){
-            CS16Edge<V> edge = it.next();
-            if(edge.getVertexTwo() == vert){
-                incomingEdges.add(edge);
-            }
-
-            if(!_directed){
-                if(edge.getVertexOne() == vert){
-                    incomingEdges.add(edge);
-                }
-            }
-        }
-
-        return incomingEdges.iterator();
+        return Collections.unmodifiableSet(_inEdges[vert.getVertexNumber()]).iterator();
     }
     
     /**
      * Returns an Iterator of all the Edges that are outgoing from this vertex.
      * <p>
-     * This runs in O(|V|) time;
+     * This runs in O(1) time; iterating takes O(deg(v)).
      * </p>
 
      * @param vert
@@ -312,28 +505,16 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
             throw new InvalidVertexException("A vertex is null.");
         }
 
-        Set<CS16Edge<V>> outgoingEdges = new HashSet<>();
-
-        Iterator<CS16Edge<V>> it = edges();
-
-        while(it.hasNext()){
-            CS16Edge<V> edge = it.next();
-            if(edge.getVertexOne() == vert){
-                outgoingEdges.add(edge);
-            }
-            if(!_directed){
-                if(edge.getVertexTwo() == vert){
-                    outgoingEdges.add(edge);
-                }
-            }
-        }
-
-        return outgoingEdges.iterator();
+        return Collections.unmodifiableSet(_outEdges[vert.getVertexNumber()]).iterator();
     }
 
     /**
      * Returns an int of the number Edges that are leaving from this Vertex. This should only
      * work if called on a directed graph. This method will be used in MyPageRank.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
      * 
      * @param vert
      *            The vertex to find the outgoing edges on.
@@ -354,18 +535,7 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
             throw new DirectionException("Graph is undirected.");
         }
 
-        int numOutgoingEdges = 0;
-
-        Iterator<CS16Edge<V>> it = this.outgoingEdges(vert);
-
-        while(it.hasNext()){
-            CS16Edge<V> edge = it.next();
-            if(edge.getVertexOne() == vert){
-                numOutgoingEdges++;
-            }
-        }
-
-        return numOutgoingEdges;
+        return _outEdges[vert.getVertexNumber()].size();
     }
 
     /**
@@ -484,28 +654,54 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
     }
 
     /**
-     * Toggles the directedness of the graph.
+     * Toggles the directedness of the graph, which also clears it.
      */
     @Override
+    @SuppressWarnings("unchecked")
     public void toggleDirected() {
-        _directed = !_directed;
         this.clear();
+        _directed = !_directed;
+
+        // an undirected graph shares one edge set per vertex, a directed
+        // one needs its own incoming sets
+        _inEdges = _directed ? new Set[_outEdges.length] : _outEdges;
     }
 
     /**
-     * Clears all the vertices and edges from the graph. You will want to also
-     * clear the adjacency matrix.
+     * Clears all the vertices and edges from the graph. Rather than
+     * allocating a new matrix, only the cells of the existing edges are
+     * nulled, and the vertex, edge and per-vertex edge sets are emptied
+     * and kept, so a graph reused across many small inputs doesn't
+     * reallocate its MAX_VERTICES x MAX_VERTICES matrix every time. A
+     * growable matrix keeps its current size.
      *
      * <p>
-     * This runs in O(1) time.
+     * This runs in O(|V| + |E|) time for the graph being cleared.
      * </p>
      */
     @Override
     public void clear() {
-    _vertices = new HashSet<>();
-    _numVertices = 0;
-    _edges = new HashSet<>();
-    _adjMatrix = this.makeEmptyEdgeArray();
+        // every non-null cell of the matrix holds one of the edges
+        for(CS16Edge<V> edge : _edges){
+            int i = edge.getVertexOne().getVertexNumber();
+            int j = edge.getVertexTwo().getVertexNumber();
+            _adjMatrix[i][j] = null;
+            _adjMatrix[j][i] = null;
+        }
+
+        for(int number = 1; number <= _maxVertexNumber; number++){
+            if(_outEdges[number] != null){
+                _outEdges[number].clear();
+            }
+            if(_inEdges[number] != null){
+                _inEdges[number].clear();
+            }
+        }
+
+        _vertices.clear();
+        _edges.clear();
+        _maxVertexNumber = 0;
+        _numFree = 0;
     }
 
     /**
@@ -513,9 +709,181 @@ public class AdjacencyMatrixGraph<V> implements Graph<V> {
      */
     @Override
 	public int getNumVertices() {
-		return _numVertices;
+		return _vertices.size();
 	}
 
+    /**
+     * Renumbers the vertices 1 to |V|, keeping their relative order, and
+     * empties the free list. A fixed graph moves the edges within its
+     * matrix, while a growable graph copies them into a new matrix that
+     * fits the remaining vertices. Any arrays a caller has keyed by vertex
+     * number are invalid afterwards.
+     *
+     * <p>
+     * This runs in O(N^2) time, where N is the highest vertex number
+     * handed out before compacting.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public void compact() {
+        List<CS16Vertex<V>> live = new ArrayList<>(_vertices);
+        live.sort((a, b) -> Integer.compare(a.getVertexNumber(), b.getVertexNumber()));
+        int n = live.size();
+
+        CS16Edge<V>[][] matrix = _growable
+                ? new CS16Edge[Math.max(INITIAL_CAPACITY, n + 1)][Math.max(INITIAL_CAPACITY, n + 1)]
+                : _adjMatrix;
+        Set<CS16Edge<V>>[] outEdges = _growable ? new Set[matrix.length + 1] : _outEdges;
+        Set<CS16Edge<V>>[] inEdges = !_directed ? outEdges
+                : _growable ? new Set[matrix.length + 1] : _inEdges;
+
+        // vertex k (counting from 1) moves from its old row and column to row
+        // and column k. Its old number is at least k, so going through the
+        // rows and columns in order never overwrites a cell that is still to
+        // be read. A full fixed matrix has no row for vertex number
+        // MAX_VERTICES, which can't have edges, so it only moves null cells.
+        for(int k = 1; k <= n; k++){
+            int oldI = live.get(k - 1).getVertexNumber();
+            for(int l = 1; l <= n && k < matrix.length; l++){
+                int oldJ = live.get(l - 1).getVertexNumber();
+                if(l < matrix.length){
+                    matrix[k][l] = oldI < _adjMatrix.length && oldJ < _adjMatrix.length
+                            ? _adjMatrix[oldI][oldJ] : null;
+                }
+            }
+            outEdges[k] = _outEdges[oldI];
+            inEdges[k] = _inEdges[oldI];
+        }
+
+        // a fixed matrix still holds the old cells past the new numbers
+        if(!_growable){
+            int top = Math.min(_maxVertexNumber, matrix.length - 1);
+            for(int k = 1; k <= top; k++){
+                int from = k <= n ? n + 1 : 1;
+                if(from <= top){
+                    Arrays.fill(matrix[k], from, top + 1, null);
+                }
+            }
+            Arrays.fill(outEdges, n + 1, _maxVertexNumber + 1, null);
+            Arrays.fill(inEdges, n + 1, _maxVertexNumber + 1, null);
+        }
+
+        for(int k = 1; k <= n; k++){
+            live.get(k - 1).setVertexNumber(k);
+        }
+
+        _adjMatrix = matrix;
+        _outEdges = outEdges;
+        _inEdges = inEdges;
+        _maxVertexNumber = n;
+        _numFree = 0;
+    }
+
+    /**
+     * Takes every edge incident on vertex v out of the edge set, the
+     * matrix and the edge sets of the other vertices. The edge sets of v
+     * itself, and of any vertex numbered in removed, are left as they are,
+     * since they are about to be dropped.
+     */
+    private void detachEdges(int v, Set<Integer> removed) {
+        this.detachEdges(_outEdges[v], v, removed);
+        if(_directed){
+            this.detachEdges(_inEdges[v], v, removed);
+        }
+    }
+
+    private void detachEdges(Set<CS16Edge<V>> incident, int v, Set<Integer> removed) {
+        for(CS16Edge<V> edge : incident){
+
+            // it may already be gone through its other end
+            if(!_edges.remove(edge)){
+                continue;
+            }
+
+            int i = edge.getVertexOne().getVertexNumber();
+            int j = edge.getVertexTwo().getVertexNumber();
+
+            _adjMatrix[i][j] = null;
+            if(!_directed){
+                _adjMatrix[j][i] = null;
+            }
+
+            if(i != v && (removed == null || !removed.contains(i))){
+                _outEdges[i].remove(edge);
+            }
+            if(j != v && (removed == null || !removed.contains(j))){
+                _inEdges[j].remove(edge);
+            }
+        }
+    }
+
+    /**
+     * Returns the initial capacity a HashSet needs to hold size elements
+     * without rehashing at the default load factor.
+     */
+    private static int hashCapacity(int size) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) size * 4 / 3 + 1);
+    }
+
+    /**
+     * Pushes the number of a removed vertex onto the free list.
+     */
+    private void freeNumber(int number) {
+        if(_numFree == _freeNumbers.length){
+            _freeNumbers = Arrays.copyOf(_freeNumbers, 2 * _numFree);
+        }
+        _freeNumbers[_numFree++] = number;
+        _outEdges[number] = null;
+        _inEdges[number] = null;
+    }
+
+    /**
+     * Allocates the per-vertex edge list arrays. An undirected graph only
+     * needs one list of incident edges per vertex, so both arrays alias it.
+     */
+    @SuppressWarnings("unchecked")
+    private void makeEdgeLists() {
+        _outEdges = new Set[_adjMatrix.length + 1];
+        _inEdges = _directed ? new Set[_adjMatrix.length + 1] : _outEdges;
+    }
+
+    /**
+     * Returns a new empty matrix: the full MAX_VERTICES x MAX_VERTICES one,
+     * or a small one for a growable graph.
+     */
+    @SuppressWarnings("unchecked")
+    private CS16Edge<V>[][] makeMatrix() {
+        if(_growable){
+            return new CS16Edge[INITIAL_CAPACITY][INITIAL_CAPACITY];
+        }
+        return this.makeEmptyEdgeArray();
+    }
+
+    /**
+     * Replaces the matrix with one at least minCapacity on each side (and
+     * at least double the old side), copying the existing rows over. The
+     * edge list arrays grow with it.
+     *
+     * <p>
+     * This runs in O(n^2) time for the new side length n, which the
+     * doubling spreads out to amortized O(n) per inserted vertex.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    private void growMatrix(int minCapacity) {
+        int oldCapacity = _adjMatrix.length;
+        int capacity = Math.max(2 * oldCapacity, minCapacity);
+
+        CS16Edge<V>[][] matrix = new CS16Edge[capacity][capacity];
+        for(int i = 0; i < oldCapacity; i++){
+            System.arraycopy(_adjMatrix[i], 0, matrix[i], 0, oldCapacity);
+        }
+        _adjMatrix = matrix;
+
+        _outEdges = Arrays.copyOf(_outEdges, capacity + 1);
+        _inEdges = _directed ? Arrays.copyOf(_inEdges, capacity + 1) : _outEdges;
+    }
+
     // Do not change this method!
     @SuppressWarnings("unchecked")
     private CS16Edge<V>[][] makeEmptyEdgeArray() {
@@ -0,0 +1,672 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+import support.graph.GraphEdge;
+import support.graph.GraphVertex;
+import support.graph.DirectionException;
+import support.graph.InvalidEdgeException;
+import support.graph.InvalidVertexException;
+import support.graph.NoSuchEdgeException;
+import support.graph.NoSuchVertexException;
+
+/**
+ * This class defines a Graph that only records which vertices are
+ * adjacent, as an adjacency matrix packed one bit per cell into long
+ * words. It is meant for link graphs where every edge has the same
+ * weight (or none at all), where a matrix of edge references spends 64
+ * times the memory on information a single bit holds.
+ *
+ * Because no edge objects are stored, edges are handed out as new
+ * objects whenever they are asked for. Two edges returned for the same
+ * pair of vertices hold the same vertices and element but are not the
+ * same object, so they should be compared by their end vertices. The
+ * graph is unweighted: the element an edge is inserted with is not kept,
+ * and every edge has the element 1, so algorithms that read weights (like
+ * MyPrimJarnik) see every edge as weighing the same, and ones that insert
+ * edges of their own (like MyPageRank with its sink edges) still can.
+ * There can be at most one edge between each (ordered) pair of vertices.
+ *
+ * areAdjacent tests a single bit, and the edge iterators skip over whole
+ * words of non-neighbors at a time. A directed graph also keeps the
+ * transposed matrix so incoming edges are a row scan as well.
+ */
+public class BitMatrixGraph<V> implements Graph<V> {
+
+    // side length of the matrix the graph starts with, a multiple of 64
+    private static final int INITIAL_CAPACITY = 64;
+
+    // vertex slots, indexed by vertex number (null once a vertex is removed)
+    private CS16Vertex<V>[] _vertexSlots;
+    private int _numSlots;
+    private int _numVertices;
+    // stack of the numbers of removed vertices, ready to be reused
+    private int[] _freeNumbers;
+    private int _numFree;
+
+    // row i holds words _rows[i * _wordsPerRow .. (i + 1) * _wordsPerRow)
+    private long[] _rows;
+    // the transposed matrix for a directed graph, the same array otherwise
+    private long[] _columns;
+    private int _wordsPerRow;
+    private int[] _outDegree;
+    private int _numEdges;
+
+    // the element of every edge, as the graph is unweighted
+    private static final Integer EDGE_ELEMENT = 1;
+
+    // boolean that keeps track of directedness of graph
+    private boolean _directed;
+
+    /**
+     * Constructor for the Graph. Takes in a boolean that represents whether
+     * the graph will be directed.
+     *
+     * This runs in O(1) time.
+     */
+    public BitMatrixGraph(boolean directed) {
+        _directed = directed;
+        this.clear();
+    }
+
+    /**
+     * Returns an iterator holding all the Vertices of the graph.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @return an Iterator containing the vertices of the Graph.
+     */
+    @Override
+    public Iterator<CS16Vertex<V>> vertices() {
+        return new Iterator<CS16Vertex<V>>() {
+            private int _next = this.skip(0);
+
+            private int skip(int i) {
+                while(i < _numSlots && _vertexSlots[i] == null){
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return _next < _numSlots;
+            }
+
+            @Override
+            public CS16Vertex<V> next() {
+                if(!this.hasNext()){
+                    throw new NoSuchElementException();
+                }
+                CS16Vertex<V> vertex = _vertexSlots[_next];
+                _next = this.skip(_next + 1);
+                return vertex;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator holding all the edges of the graph, each made as
+     * it is reached. An undirected edge is only returned once.
+     *
+     * <p>
+     * This runs in O(1) time; iterating takes O(|V|^2 / 64 + |E|).
+     * </p>
+     *
+     * @return an Iterator containing the edges of the Graph.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> edges() {
+        return new Iterator<CS16Edge<V>>() {
+            private int _row = 0;
+            private RowIterator _current = this.advance();
+
+            private RowIterator advance() {
+                while(_row < _numSlots){
+                    int i = _row++;
+                    if(_vertexSlots[i] != null){
+                        // an undirected edge is stored in both rows, keep it in the lower one
+                        RowIterator it = new RowIterator(_rows, i, _directed ? 0 : i, true);
+                        if(it.hasNext()){
+                            return it;
+                        }
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return _current != null;
+            }
+
+            @Override
+            public CS16Edge<V> next() {
+                if(!this.hasNext()){
+                    throw new NoSuchElementException();
+                }
+                CS16Edge<V> edge = _current.next();
+                if(!_current.hasNext()){
+                    _current = this.advance();
+                }
+                return edge;
+            }
+        };
+    }
+
+    /**
+     * Inserts a new Vertex into the Graph, reusing the number of a removed
+     * vertex if there is one.
+     *
+     * <p>
+     * This runs in amortized O(1) time.
+     * </p>
+     *
+     * @param vertElement
+     *            the element to be added to the graph as a vertex
+     */
+    @Override
+    public CS16Vertex<V> insertVertex(V vertElement) {
+
+        int number;
+        if(_numFree > 0){
+            number = _freeNumbers[--_numFree];
+        } else {
+            if(_numSlots == _vertexSlots.length){
+                this.grow();
+            }
+            number = _numSlots++;
+        }
+
+        CS16Vertex<V> newVertex = new GraphVertex<>(vertElement);
+        newVertex.setVertexNumber(number);
+        _vertexSlots[number] = newVertex;
+        _numVertices++;
+
+        return newVertex;
+    }
+
+    /**
+     * Inserts a new Edge into the Graph by setting its bit. Inserting an
+     * edge that is already there changes nothing.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param v1
+     *            The first vertex of the edge connection.
+     * @param v2
+     *            The second vertex of the edge connection.
+     * @param edgeElement
+     *            Ignored, as every edge has the element 1.
+     * @return Returns an edge object for the newly inserted Edge.
+     * @throws InvalidVertexException
+     *             Thrown when either Vertex is null.
+     */
+    @Override
+    public CS16Edge<V> insertEdge(CS16Vertex<V> v1, CS16Vertex<V> v2, Integer edgeElement)
+            throws InvalidVertexException {
+        if(v1 == null || v2 == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        int i = v1.getVertexNumber();
+        int j = v2.getVertexNumber();
+
+        if(!this.testBit(_rows, i, j)){
+            this.setBit(_rows, i, j, true);
+            this.setBit(_columns, j, i, true);
+            _outDegree[i]++;
+            if(!_directed && i != j){
+                _outDegree[j]++;
+            }
+            _numEdges++;
+        }
+
+        return new GraphEdge<>(EDGE_ELEMENT, v1, v2);
+    }
+
+    /**
+     * Removes a Vertex and all of its incident edges from the graph.
+     *
+     * <p>
+     * This runs in O(|V| / 64 + deg(v)) time.
+     * </p>
+     *
+     * @param vert
+     *            The Vertex to remove.
+     * @return The element of the removed Vertex.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public V removeVertex(CS16Vertex<V> vert) throws InvalidVertexException {
+
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        int v = vert.getVertexNumber();
+        if(_vertexSlots[v] != vert){
+            return vert.element();
+        }
+
+        // clearing the row (outgoing edges) and then the column (incoming edges)
+        this.clearLine(_rows, _columns, v);
+        if(_directed){
+            this.clearLine(_columns, _rows, v);
+        }
+
+        _vertexSlots[v] = null;
+        _numVertices--;
+        if(_numFree == _freeNumbers.length){
+            _freeNumbers = Arrays.copyOf(_freeNumbers, 2 * _numFree);
+        }
+        _freeNumbers[_numFree++] = v;
+
+        return vert.element();
+    }
+
+    /**
+     * Removes an Edge from the Graph by clearing its bit. The edge is
+     * identified by its end vertices.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param edge
+     *            The Edge to remove.
+     * @return The element of the removed Edge.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge is null.
+     */
+    @Override
+    public Integer removeEdge(CS16Edge<V> edge) throws InvalidEdgeException {
+
+        if(edge == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        int i = edge.getVertexOne().getVertexNumber();
+        int j = edge.getVertexTwo().getVertexNumber();
+
+        if(this.testBit(_rows, i, j)){
+            this.removeBits(i, j);
+        }
+
+        return edge.element();
+    }
+
+    /**
+     * Returns an edge object for the edge that connects the two vertices.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param v1
+     *            The first vertex that may be connected.
+     * @param v2
+     *            The second vertex that may be connected.
+     * @return The edge that connects the first and second vertices.
+     * @throws InvalidVertexException
+     *             Thrown when either vertex is null.
+     * @throws NoSuchEdgeException
+     *             Thrown when no edge connects the vertices.
+     */
+    @Override
+    public CS16Edge<V> connectingEdge(CS16Vertex<V> v1, CS16Vertex<V> v2)
+            throws InvalidVertexException, NoSuchEdgeException {
+
+        if(!this.areAdjacent(v1, v2)){
+            throw new NoSuchEdgeException("No edge connecting the vertices.");
+        }
+        return new GraphEdge<>(EDGE_ELEMENT, v1, v2);
+    }
+
+    /**
+     * Returns an Iterator over all the Edges that are incoming to this Vertex.
+     *
+     * <p>
+     * This runs in O(1) time; iterating takes O(|V| / 64 + deg(v)).
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the incoming edges on.
+     * @return Returns an Iterator holding the incoming edges on v.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> incomingEdges(CS16Vertex<V> vert) throws InvalidVertexException {
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        return new RowIterator(_columns, vert.getVertexNumber(), 0, false);
+    }
+
+    /**
+     * Returns an Iterator of all the Edges that are outgoing from this vertex.
+     *
+     * <p>
+     * This runs in O(1) time; iterating takes O(|V| / 64 + deg(v)).
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the outgoing edges on.
+     * @return Returns an Iterator holding the outgoing edges on v.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> outgoingEdges(CS16Vertex<V> vert) throws InvalidVertexException {
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        return new RowIterator(_rows, vert.getVertexNumber(), 0, true);
+    }
+
+    /**
+     * Returns an int of the number Edges that are leaving from this Vertex.
+     * This should only work if called on a directed graph.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the outgoing edges on.
+     * @return an int
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is not valid.
+     * @throws DirectionException
+     *             Thrown when this method is called on an undirected graph.
+     */
+    @Override
+    public int numOutgoingEdges(CS16Vertex<V> vert) throws InvalidVertexException, DirectionException {
+
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        if(!_directed){
+            throw new DirectionException("Graph is undirected.");
+        }
+
+        return _outDegree[vert.getVertexNumber()];
+    }
+
+    /**
+     * Returns the Vertex that is on the other side of Edge e opposite of Vertex
+     * v.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param vert
+     *            The first vertex on Edge e.
+     * @param edge
+     *            The edge connecting Vertex v and the unknown opposite Vertex.
+     * @return The opposite Vertex of v across Edge e.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is not valid.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge is not valid.
+     * @throws NoSuchVertexException
+     *             Thrown when Edge e is not incident on v.
+     */
+    @Override
+    public CS16Vertex<V> opposite(CS16Vertex<V> vert, CS16Edge<V> edge)
+            throws InvalidVertexException, InvalidEdgeException, NoSuchVertexException {
+
+        if(vert == null){
+            throw new InvalidVertexException("Vertex is null.");
+        }
+
+        if(edge == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        if(edge.getVertexOne() == vert){
+            return edge.getVertexTwo();
+        } else if(edge.getVertexTwo() == vert){
+            return edge.getVertexOne();
+        } else {
+            throw new NoSuchVertexException("Edge e is not incident on v.");
+        }
+    }
+
+    /**
+     * Returns the two Vertices that the Edge e is connected to.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param e
+     *            The edge to find the connecting Vertex's on.
+     * @return a list of Vertex's holding the two connecting vertices.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge e is null.
+     */
+    @Override
+    public List<CS16Vertex<V>> endVertices(CS16Edge<V> e) throws InvalidEdgeException {
+
+        if(e == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        List<CS16Vertex<V>> endVertices = new ArrayList<>(2);
+        endVertices.add(e.getVertexOne());
+        endVertices.add(e.getVertexTwo());
+
+        return endVertices;
+    }
+
+    /**
+     * Returns true if there exists an Edge that starts from Vertex v1 and ends
+     * at Vertex v2. For an undirected graph the direction does not matter.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param v1
+     *            The first Vertex to test adjacency.
+     * @param v2
+     *            The second Vertex to test adjacency.
+     * @return Returns true if the vertices are adjacent.
+     * @throws InvalidVertexException
+     *             Thrown if either vertex is null.
+     */
+    @Override
+    public boolean areAdjacent(CS16Vertex<V> v1, CS16Vertex<V> v2) throws InvalidVertexException {
+
+        if(v1 == null || v2 == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        return this.testBit(_rows, v1.getVertexNumber(), v2.getVertexNumber());
+    }
+
+    /**
+     * Toggles the directedness of the graph.
+     */
+    @Override
+    public void toggleDirected() {
+        _directed = !_directed;
+        this.clear();
+    }
+
+    /**
+     * Clears all the vertices and edges from the graph, shrinking the
+     * matrix back to its initial size.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        _vertexSlots = new CS16Vertex[INITIAL_CAPACITY];
+        _outDegree = new int[INITIAL_CAPACITY];
+        _freeNumbers = new int[16];
+        _numFree = 0;
+        _numSlots = 0;
+        _numVertices = 0;
+
+        _wordsPerRow = INITIAL_CAPACITY / 64;
+        _rows = new long[INITIAL_CAPACITY * _wordsPerRow];
+        _columns = _directed ? new long[INITIAL_CAPACITY * _wordsPerRow] : _rows;
+        _numEdges = 0;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     */
+    @Override
+    public int getNumVertices() {
+        return _numVertices;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     */
+    public int getNumEdges() {
+        return _numEdges;
+    }
+
+    private boolean testBit(long[] matrix, int i, int j) {
+        return (matrix[i * _wordsPerRow + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    private void setBit(long[] matrix, int i, int j, boolean value) {
+        int word = i * _wordsPerRow + (j >>> 6);
+        if(value){
+            matrix[word] |= 1L << j;
+        } else {
+            matrix[word] &= ~(1L << j);
+        }
+    }
+
+    /**
+     * Clears the bits of the edge from i to j in both matrices.
+     */
+    private void removeBits(int i, int j) {
+        this.setBit(_rows, i, j, false);
+        this.setBit(_columns, j, i, false);
+        _outDegree[i]--;
+        if(!_directed && i != j){
+            _outDegree[j]--;
+        }
+        _numEdges--;
+    }
+
+    /**
+     * Clears every bit in line v of one matrix, along with the matching
+     * bits of the other, one set bit at a time.
+     */
+    private void clearLine(long[] matrix, long[] transposed, int v) {
+        int start = v * _wordsPerRow;
+        for(int w = 0; w < _wordsPerRow; w++){
+            long word = matrix[start + w];
+            while(word != 0){
+                int u = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+
+                if(matrix == _rows){
+                    this.removeBits(v, u);
+                } else {
+                    this.removeBits(u, v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Doubles the side of the matrix, copying every row into the new one.
+     */
+    private void grow() {
+        int capacity = 2 * _vertexSlots.length;
+        int wordsPerRow = capacity / 64;
+
+        _rows = this.copyMatrix(_rows, capacity, wordsPerRow);
+        _columns = _directed ? this.copyMatrix(_columns, capacity, wordsPerRow) : _rows;
+        _wordsPerRow = wordsPerRow;
+
+        _vertexSlots = Arrays.copyOf(_vertexSlots, capacity);
+        _outDegree = Arrays.copyOf(_outDegree, capacity);
+    }
+
+    private long[] copyMatrix(long[] matrix, int capacity, int wordsPerRow) {
+        long[] copy = new long[capacity * wordsPerRow];
+        for(int i = 0; i < _numSlots; i++){
+            System.arraycopy(matrix, i * _wordsPerRow, copy, i * wordsPerRow, _wordsPerRow);
+        }
+        return copy;
+    }
+
+    /**
+     * Iterates over the set bits of one line of a matrix, a word at a
+     * time, making an edge for each. For a row the line's vertex is the
+     * edge's first vertex, and for a column it is the second.
+     */
+    private class RowIterator implements Iterator<CS16Edge<V>> {
+        private final long[] _matrix;
+        private final int _line;
+        private final boolean _outgoing;
+        private int _word;
+        private long _bits;
+
+        RowIterator(long[] matrix, int line, int from, boolean outgoing) {
+            _matrix = matrix;
+            _line = line;
+            _outgoing = outgoing;
+            _word = from >>> 6;
+            _bits = _word < _wordsPerRow ? matrix[line * _wordsPerRow + _word] & (-1L << from) : 0;
+            this.advance();
+        }
+
+        private void advance() {
+            while(_bits == 0 && ++_word < _wordsPerRow){
+                _bits = _matrix[_line * _wordsPerRow + _word];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _bits != 0;
+        }
+
+        @Override
+        public CS16Edge<V> next() {
+            if(!this.hasNext()){
+                throw new NoSuchElementException();
+            }
+            int other = (_word << 6) + Long.numberOfTrailingZeros(_bits);
+            _bits &= _bits - 1;
+            this.advance();
+
+            CS16Vertex<V> here = _vertexSlots[_line];
+            CS16Vertex<V> there = _vertexSlots[other];
+            return _outgoing
+                    ? new GraphEdge<>(EDGE_ELEMENT, here, there)
+                    : new GraphEdge<>(EDGE_ELEMENT, there, here);
+        }
+    }
+}
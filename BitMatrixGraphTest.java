@@ -0,0 +1,181 @@
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+
+/**
+ * This class tests the parts of BitMatrixGraph that differ from the other
+ * graphs: edges are made on demand, are unweighted, and are found
+ * through word-level scans of the packed matrix.
+ */
+public class BitMatrixGraphTest {
+
+    /**
+     * Counts what is left in an iterator.
+     */
+    private static int count(Iterator<?> it) {
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Edges handed out for the same pair hold the same vertices and element,
+     * and can be used to remove the edge.
+     */
+    @Test(timeout = 10000)
+    public void testEdgesAreMadeOnDemand() {
+        BitMatrixGraph<String> graph = new BitMatrixGraph<>(true);
+        CS16Vertex<String> A = graph.insertVertex("A");
+        CS16Vertex<String> B = graph.insertVertex("B");
+
+        CS16Edge<String> ab = graph.insertEdge(A, B, 1);
+        CS16Edge<String> found = graph.connectingEdge(A, B);
+
+        assertSame(A, found.getVertexOne());
+        assertSame(B, found.getVertexTwo());
+        assertEquals(Integer.valueOf(1), found.element());
+        assertFalse(graph.areAdjacent(B, A));
+
+        graph.removeEdge(ab);
+        assertFalse(graph.areAdjacent(A, B));
+        assertEquals(0, graph.getNumEdges());
+    }
+
+    /**
+     * The element an edge is inserted with is ignored: every edge has the
+     * element 1, whatever the others were inserted with.
+     */
+    @Test(timeout = 10000)
+    public void testElementsAreIgnored() {
+        BitMatrixGraph<String> graph = new BitMatrixGraph<>(false);
+        CS16Vertex<String> A = graph.insertVertex("A");
+        CS16Vertex<String> B = graph.insertVertex("B");
+        CS16Vertex<String> C = graph.insertVertex("C");
+
+        assertEquals(Integer.valueOf(1), graph.insertEdge(A, B, 5).element());
+        assertEquals(Integer.valueOf(1), graph.insertEdge(B, C, 2).element());
+        assertEquals(Integer.valueOf(1), graph.insertEdge(C, A, null).element());
+        assertEquals(Integer.valueOf(1), graph.connectingEdge(B, A).element());
+        assertEquals(3, graph.getNumEdges());
+    }
+
+    /**
+     * The default PageRank, which links every sink to every vertex, runs on
+     * a graph whose edges were inserted with another element, and gives the
+     * same ranks as on an AdjacencyMatrixGraph.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testPageRank() {
+        BitMatrixGraph<String> bits = new BitMatrixGraph<>(true);
+        AdjacencyMatrixGraph<String> matrix = new AdjacencyMatrixGraph<>(true);
+        CS16Vertex<String>[] bitVertices = new CS16Vertex[4];
+        CS16Vertex<String>[] matrixVertices = new CS16Vertex[4];
+        for (int v = 0; v < 4; v++) {
+            bitVertices[v] = bits.insertVertex("V" + v);
+            matrixVertices[v] = matrix.insertVertex("V" + v);
+        }
+
+        // vertex 3 is a sink
+        int[][] links = {{0, 1}, {1, 2}, {2, 0}, {2, 3}};
+        for (int[] link : links) {
+            bits.insertEdge(bitVertices[link[0]], bitVertices[link[1]], 5);
+            matrix.insertEdge(matrixVertices[link[0]], matrixVertices[link[1]], 5);
+        }
+
+        Map<CS16Vertex<String>, Double> expected = new MyPageRank<String>().calcPageRank(matrix);
+        Map<CS16Vertex<String>, Double> actual = new MyPageRank<String>().calcPageRank(bits);
+        for (int v = 0; v < 4; v++) {
+            assertEquals(expected.get(matrixVertices[v]), actual.get(bitVertices[v]), 1e-12);
+        }
+    }
+
+    /**
+     * Prim-Jarnik sees every edge as weighing the same, so its forest
+     * spans every vertex with |V| - 1 edges.
+     */
+    @Test(timeout = 10000)
+    public void testPrimJarnik() {
+        BitMatrixGraph<String> graph = new BitMatrixGraph<>(false);
+        CS16Vertex<String> A = graph.insertVertex("A");
+        CS16Vertex<String> B = graph.insertVertex("B");
+        CS16Vertex<String> C = graph.insertVertex("C");
+        graph.insertEdge(A, B, 7);
+        graph.insertEdge(B, C, 3);
+        graph.insertEdge(C, A, 9);
+
+        MsfResult<String> forest = new MyPrimJarnik<String>().genMinSpanForest(graph, null);
+        assertEquals(2, forest.size());
+        assertEquals(2, forest.getTotalWeight());
+    }
+
+    /**
+     * Neighbor iteration has to cross word boundaries, and removing a
+     * vertex clears both its row and its column.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testManyVertices() {
+        BitMatrixGraph<String> graph = new BitMatrixGraph<>(true);
+        CS16Vertex<String>[] vertices = new CS16Vertex[200];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = graph.insertVertex("V" + i);
+        }
+
+        // vertex 0 links to every third vertex, and every fifth links back
+        for (int i = 0; i < vertices.length; i += 3) {
+            graph.insertEdge(vertices[0], vertices[i], null);
+        }
+        for (int i = 0; i < vertices.length; i += 5) {
+            graph.insertEdge(vertices[i], vertices[0], null);
+        }
+
+        assertEquals(67, graph.numOutgoingEdges(vertices[0]));
+        assertEquals(67, count(graph.outgoingEdges(vertices[0])));
+        assertEquals(40, count(graph.incomingEdges(vertices[0])));
+        assertEquals(106, count(graph.edges()));
+
+        graph.removeVertex(vertices[0]);
+        assertEquals(0, count(graph.edges()));
+        assertEquals(0, graph.numOutgoingEdges(vertices[195]));
+        assertEquals(199, graph.getNumVertices());
+
+        // the freed number is reused, with an empty row and column
+        CS16Vertex<String> reused = graph.insertVertex("W");
+        assertEquals(0, reused.getVertexNumber());
+        assertEquals(0, count(graph.incomingEdges(reused)));
+        assertEquals(0, count(graph.outgoingEdges(reused)));
+    }
+
+    /**
+     * An undirected edge is only listed once by edges(), but shows up on
+     * both of its vertices.
+     */
+    @Test(timeout = 10000)
+    public void testUndirectedEdges() {
+        BitMatrixGraph<String> graph = new BitMatrixGraph<>(false);
+        CS16Vertex<String> A = graph.insertVertex("A");
+        CS16Vertex<String> B = graph.insertVertex("B");
+        CS16Vertex<String> C = graph.insertVertex("C");
+
+        graph.insertEdge(A, B, 1);
+        graph.insertEdge(C, B, 1);
+
+        assertTrue(graph.areAdjacent(B, A));
+        assertTrue(graph.areAdjacent(B, C));
+        assertEquals(2, count(graph.edges()));
+        assertEquals(2, count(graph.incomingEdges(B)));
+        assertEquals(1, count(graph.outgoingEdges(C)));
+    }
+}
@@ -0,0 +1,47 @@
+package graph;
+
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+import support.graph.InvalidVertexException;
+
+/**
+ * A Graph that can be loaded in bulk. Rather than one insertEdge call
+ * per edge, the edges are handed over as primitive arrays, and the
+ * storage can be sized up front for the expected number of vertices and
+ * edges, so a large edge list is loaded in a single pass without the
+ * storage growing along the way.
+ */
+public interface BulkLoadable<V> extends Graph<V> {
+
+    /**
+     * Sizes the graph's storage to hold at least the given numbers of
+     * vertices and edges, on top of the ones it already has, without
+     * growing again. The counts are only a hint: going over them is
+     * allowed, it is just slower.
+     *
+     * @param expectedVertices the number of vertices about to be inserted
+     * @param expectedEdges the number of edges about to be inserted
+     */
+    void ensureCapacity(int expectedVertices, int expectedEdges);
+
+    /**
+     * Inserts numEdges edges in one pass. Edge k goes from
+     * vertices[sources[k]] to vertices[targets[k]] and has the element
+     * weights[k], just as if it had been inserted with insertEdge.
+     *
+     * @param vertices the vertices the sources and targets index into,
+     *            all of which must already be in the graph
+     * @param sources the index in vertices of the first vertex of each edge
+     * @param targets the index in vertices of the second vertex of each edge
+     * @param weights the element of each edge
+     * @param numEdges the number of edges to insert, from the start of
+     *            the arrays
+     * @throws InvalidVertexException
+     *             Thrown when a vertex an edge refers to is null, in which
+     *             case none of the edges are inserted.
+     * @throws IllegalArgumentException
+     *             Thrown when an array is shorter than numEdges.
+     */
+    void insertEdges(CS16Vertex<V>[] vertices, int[] sources, int[] targets, int[] weights, int numEdges)
+            throws InvalidVertexException;
+}
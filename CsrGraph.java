@@ -0,0 +1,914 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+import support.graph.GraphEdge;
+import support.graph.GraphVertex;
+import support.graph.DirectionException;
+import support.graph.InvalidEdgeException;
+import support.graph.InvalidVertexException;
+import support.graph.NoSuchEdgeException;
+import support.graph.NoSuchVertexException;
+
+/**
+ * This class defines a Graph that stores its edges in compressed sparse row
+ * (CSR) form. Instead of a |V| x |V| matrix, every vertex owns a contiguous
+ * slice of a primitive target array, delimited by an offset array, so memory
+ * grows with |V| + |E| rather than with the square of the vertex count.
+ *
+ * Edges are appended to primitive source/target/weight arrays as they are
+ * inserted, and the row arrays are rebuilt lazily (in O(|V| + |E|) time) the
+ * next time a query needs them. The graph is therefore cheapest to use the
+ * way we load link graphs: insert everything first, then query.
+ *
+ * Every row is sorted by target vertex number, which lets connectingEdge and
+ * areAdjacent binary search a row instead of scanning it.
+ *
+ * For loading large edge lists, ensureCapacity sizes the arrays once and
+ * insertEdges appends a whole batch of edges in a single pass. Those edges
+ * only get an edge object the first time one of them is handed out.
+ */
+public class CsrGraph<V> implements BulkLoadable<V> {
+
+    // initial capacity of the vertex and edge arrays
+    private static final int INITIAL_CAPACITY = 16;
+
+    // vertex slots, indexed by vertex number (null once a vertex is removed)
+    private CS16Vertex<V>[] _vertexSlots;
+    private int _numSlots;
+    private int _numVertices;
+
+    // edge pool: parallel arrays indexed by edge id, _edgeSrc is -1 once removed.
+    // Edges loaded by insertEdges get their object the first time it's asked for.
+    private CS16Edge<V>[] _edgeObjs;
+    private int[] _edgeSrc;
+    private int[] _edgeDst;
+    private int[] _edgeWeight;
+    private int _numEdgeSlots;
+    private int _numEdges;
+
+    // live degree of every vertex, kept up to date on every insert and remove
+    private int[] _outDegree;
+    private int[] _inDegree;
+
+    // the CSR rows: offsets into parallel target/edge id arrays
+    private int[] _outOffsets;
+    private int[] _outTargets;
+    private int[] _outEdgeIds;
+    private int[] _inOffsets;
+    private int[] _inSources;
+    private int[] _inEdgeIds;
+    // true when edges were inserted since the rows were last built
+    private boolean _dirty;
+
+    // boolean that keeps track of directedness of graph
+    private boolean _directed;
+
+    /**
+     * Constructor for the Graph. Takes in a boolean that represents whether
+     * the graph will be directed.
+     *
+     * This runs in O(1) time.
+     */
+    public CsrGraph(boolean directed) {
+        _directed = directed;
+        this.clear();
+    }
+
+    /**
+     * Returns an iterator holding all the Vertices of the graph.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @return an Iterator containing the vertices of the Graph.
+     */
+    @Override
+    public Iterator<CS16Vertex<V>> vertices() {
+        return new SlotIterator<>(_vertexSlots, _numSlots);
+    }
+
+    /**
+     * Returns an iterator holding all the edges of the graph.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @return an Iterator containing the edges of the Graph.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> edges() {
+        return new PoolIterator();
+    }
+
+    /**
+     * Inserts a new Vertex into the Graph.
+     *
+     * <p>
+     * This runs in amortized O(1) time.
+     * </p>
+     *
+     * @param vertElement
+     *            the element to be added to the graph as a vertex
+     */
+    @Override
+    public CS16Vertex<V> insertVertex(V vertElement) {
+
+        if(_numSlots == _vertexSlots.length){
+            this.growVertexArrays(_vertexSlots.length * 2);
+        }
+
+        CS16Vertex<V> newVertex = new GraphVertex<>(vertElement);
+        newVertex.setVertexNumber(_numSlots);
+
+        _vertexSlots[_numSlots] = newVertex;
+        _numSlots++;
+        _numVertices++;
+
+        // the row arrays have one offset per vertex slot
+        _dirty = true;
+        return newVertex;
+    }
+
+    /**
+     * Inserts a new Edge into the Graph. The rows are not touched here; they
+     * are rebuilt the next time a query needs them.
+     *
+     * <p>
+     * This runs in amortized O(1) time.
+     * </p>
+     *
+     * @param v1
+     *            The first vertex of the edge connection.
+     * @param v2
+     *            The second vertex of the edge connection.
+     * @param edgeElement
+     *            The element of the newly inserted edge.
+     * @return Returns the newly inserted Edge.
+     * @throws InvalidVertexException
+     *             Thrown when either Vertex is null.
+     */
+    @Override
+    public CS16Edge<V> insertEdge(CS16Vertex<V> v1, CS16Vertex<V> v2, Integer edgeElement)
+            throws InvalidVertexException {
+        if(v1 == null || v2 == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        if(_numEdgeSlots == _edgeObjs.length){
+            this.growEdgeArrays(_edgeObjs.length * 2);
+        }
+
+        int i = v1.getVertexNumber();
+        int j = v2.getVertexNumber();
+
+        CS16Edge<V> newEdge = new GraphEdge<>(edgeElement, v1, v2);
+        _edgeObjs[_numEdgeSlots] = newEdge;
+        _edgeSrc[_numEdgeSlots] = i;
+        _edgeDst[_numEdgeSlots] = j;
+        _edgeWeight[_numEdgeSlots] = edgeElement == null ? 0 : edgeElement;
+        _numEdgeSlots++;
+        _numEdges++;
+
+        this.addDegrees(i, j, 1);
+        _dirty = true;
+
+        return newEdge;
+    }
+
+    /**
+     * Sizes the vertex and edge arrays to hold the given numbers of new
+     * vertices and edges without growing again.
+     *
+     * <p>
+     * This runs in O(|V| + |E|) time when the arrays grow, O(1) otherwise.
+     * </p>
+     *
+     * @param expectedVertices the number of vertices about to be inserted
+     * @param expectedEdges the number of edges about to be inserted
+     */
+    @Override
+    public void ensureCapacity(int expectedVertices, int expectedEdges) {
+        // growing by at least double keeps repeated calls amortized O(1) per element
+        if(_numSlots + expectedVertices > _vertexSlots.length){
+            this.growVertexArrays(Math.max(_numSlots + expectedVertices, 2 * _vertexSlots.length));
+        }
+        if(_numEdgeSlots + expectedEdges > _edgeObjs.length){
+            this.growEdgeArrays(Math.max(_numEdgeSlots + expectedEdges, 2 * _edgeObjs.length));
+        }
+    }
+
+    /**
+     * Appends numEdges edges to the edge pool in one pass. The arrays grow
+     * at most once, the rows are rebuilt once, the next time a query needs
+     * them, and no edge objects are made until an edge is first handed out.
+     *
+     * <p>
+     * This runs in O(numEdges) time.
+     * </p>
+     *
+     * @param vertices the vertices the sources and targets index into
+     * @param sources the index in vertices of the first vertex of each edge
+     * @param targets the index in vertices of the second vertex of each edge
+     * @param weights the element of each edge
+     * @param numEdges the number of edges to insert
+     * @throws InvalidVertexException
+     *             Thrown when a vertex an edge refers to is null, in which
+     *             case none of the edges are inserted.
+     */
+    @Override
+    public void insertEdges(CS16Vertex<V>[] vertices, int[] sources, int[] targets, int[] weights, int numEdges)
+            throws InvalidVertexException {
+        if(sources.length < numEdges || targets.length < numEdges || weights.length < numEdges){
+            throw new IllegalArgumentException("The edge arrays are shorter than numEdges.");
+        }
+
+        // checking the whole batch first, so a bad edge leaves the graph as it was
+        for(int k = 0; k < numEdges; k++){
+            if(vertices[sources[k]] == null || vertices[targets[k]] == null){
+                throw new InvalidVertexException("A vertex is null.");
+            }
+        }
+
+        this.ensureCapacity(0, numEdges);
+
+        for(int k = 0; k < numEdges; k++){
+            int i = vertices[sources[k]].getVertexNumber();
+            int j = vertices[targets[k]].getVertexNumber();
+
+            _edgeSrc[_numEdgeSlots] = i;
+            _edgeDst[_numEdgeSlots] = j;
+            _edgeWeight[_numEdgeSlots] = weights[k];
+            _numEdgeSlots++;
+            _numEdges++;
+
+            this.addDegrees(i, j, 1);
+        }
+
+        _dirty = true;
+    }
+
+    /**
+     * Removes a Vertex and all of its incident edges from the graph.
+     * <p>
+     * This runs in O(deg(v)) time once the rows are built.
+     * </p>
+     *
+     * @param vert
+     *            The Vertex to remove.
+     * @return The element of the removed Vertex.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public V removeVertex(CS16Vertex<V> vert) throws InvalidVertexException {
+
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        this.ensureRows();
+        int v = vert.getVertexNumber();
+
+        for(int k = _outOffsets[v]; k < _outOffsets[v + 1]; k++){
+            this.killEdge(_outEdgeIds[k]);
+        }
+        if(_directed){
+            for(int k = _inOffsets[v]; k < _inOffsets[v + 1]; k++){
+                this.killEdge(_inEdgeIds[k]);
+            }
+        }
+
+        if(_vertexSlots[v] == vert){
+            _vertexSlots[v] = null;
+            _numVertices--;
+        }
+        return vert.element();
+    }
+
+    /**
+     * Removes an Edge from the Graph. The edge is found by binary searching
+     * the row of its first vertex and is then marked dead in place, so the
+     * rows stay valid without a rebuild.
+     *
+     * <p>
+     * This runs in O(log(deg(v))) time once the rows are built.
+     * </p>
+     *
+     * @param edge
+     *            The Edge to remove.
+     * @return The element of the removed Edge.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge is null.
+     */
+    @Override
+    public Integer removeEdge(CS16Edge<V> edge) throws InvalidEdgeException {
+
+        if(edge == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        this.ensureRows();
+        int i = edge.getVertexOne().getVertexNumber();
+        int j = edge.getVertexTwo().getVertexNumber();
+
+        for(int k = this.lowerBound(i, j); k < _outOffsets[i + 1] && _outTargets[k] == j; k++){
+            if(_edgeObjs[_outEdgeIds[k]] == edge){
+                this.killEdge(_outEdgeIds[k]);
+                break;
+            }
+        }
+
+        return edge.element();
+    }
+
+    /**
+     * Returns the edge that connects the two vertices. If several edges
+     * connect them, the most recently inserted one is returned, just like the
+     * overwritten cell of an adjacency matrix.
+     *
+     * <p>
+     * This runs in O(log(deg(v1))) time once the rows are built.
+     * </p>
+     *
+     * @param v1
+     *            The first vertex that may be connected.
+     * @param v2
+     *            The second vertex that may be connected.
+     * @return The edge that connects the first and second vertices.
+     * @throws InvalidVertexException
+     *             Thrown when either vertex is null.
+     * @throws NoSuchEdgeException
+     *             Thrown when no edge connects the vertices.
+     */
+    @Override
+    public CS16Edge<V> connectingEdge(CS16Vertex<V> v1, CS16Vertex<V> v2)
+            throws InvalidVertexException, NoSuchEdgeException {
+
+        if(v1 == null || v2 == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        int id = this.findEdge(v1.getVertexNumber(), v2.getVertexNumber());
+        if(id < 0){
+            throw new NoSuchEdgeException("No edge connecting the vertices.");
+        }
+        return this.edgeAt(id);
+    }
+
+    /**
+     * Returns an Iterator over all the Edges that are incoming to this Vertex.
+     * <p>
+     * This runs in O(1) time once the rows are built; iterating takes
+     * O(deg(v)).
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the incoming edges on.
+     * @return Returns an Iterator holding the incoming edges on v.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> incomingEdges(CS16Vertex<V> vert) throws InvalidVertexException {
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        this.ensureRows();
+        int v = vert.getVertexNumber();
+        return new RowIterator(_inEdgeIds, _inOffsets[v], _inOffsets[v + 1]);
+    }
+
+    /**
+     * Returns an Iterator of all the Edges that are outgoing from this vertex.
+     * <p>
+     * This runs in O(1) time once the rows are built; iterating takes
+     * O(deg(v)).
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the outgoing edges on.
+     * @return Returns an Iterator holding the outgoing edges on v.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> outgoingEdges(CS16Vertex<V> vert) throws InvalidVertexException {
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        this.ensureRows();
+        int v = vert.getVertexNumber();
+        return new RowIterator(_outEdgeIds, _outOffsets[v], _outOffsets[v + 1]);
+    }
+
+    /**
+     * Returns an int of the number Edges that are leaving from this Vertex.
+     * This should only work if called on a directed graph.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the outgoing edges on.
+     * @return an int
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is not valid.
+     * @throws DirectionException
+     *             Thrown when this method is called on an undirected graph.
+     */
+    @Override
+    public int numOutgoingEdges(CS16Vertex<V> vert) throws InvalidVertexException, DirectionException {
+
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        if(!_directed){
+            throw new DirectionException("Graph is undirected.");
+        }
+
+        return _outDegree[vert.getVertexNumber()];
+    }
+
+    /**
+     * Returns the Vertex that is on the other side of Edge e opposite of Vertex
+     * v.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param vert
+     *            The first vertex on Edge e.
+     * @param edge
+     *            The edge connecting Vertex v and the unknown opposite Vertex.
+     * @return The opposite Vertex of v across Edge e.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is not valid.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge is not valid.
+     * @throws NoSuchVertexException
+     *             Thrown when Edge e is not incident on v.
+     */
+    @Override
+    public CS16Vertex<V> opposite(CS16Vertex<V> vert, CS16Edge<V> edge)
+            throws InvalidVertexException, InvalidEdgeException, NoSuchVertexException {
+
+        if(vert == null){
+            throw new InvalidVertexException("Vertex is null.");
+        }
+
+        if(edge == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        if(edge.getVertexOne() == vert){
+            return edge.getVertexTwo();
+        } else if(edge.getVertexTwo() == vert){
+            return edge.getVertexOne();
+        } else {
+            throw new NoSuchVertexException("Edge e is not incident on v.");
+        }
+    }
+
+    /**
+     * Returns the two Vertices that the Edge e is connected to.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param e
+     *            The edge to find the connecting Vertex's on.
+     * @return a list of Vertex's holding the two connecting vertices.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge e is null.
+     */
+    @Override
+    public List<CS16Vertex<V>> endVertices(CS16Edge<V> e) throws InvalidEdgeException {
+
+        if(e == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        List<CS16Vertex<V>> endVertices = new ArrayList<>(2);
+        endVertices.add(e.getVertexOne());
+        endVertices.add(e.getVertexTwo());
+
+        return endVertices;
+    }
+
+    /**
+     * Returns true if there exists an Edge that starts from Vertex v1 and ends
+     * at Vertex v2. For an undirected graph the direction does not matter.
+     *
+     * <p>
+     * This runs in O(log(deg(v1))) time once the rows are built.
+     * </p>
+     *
+     * @param v1
+     *            The first Vertex to test adjacency.
+     * @param v2
+     *            The second Vertex to test adjacency.
+     * @return Returns true if the vertices are adjacent.
+     * @throws InvalidVertexException
+     *             Thrown if either vertex is null.
+     */
+    @Override
+    public boolean areAdjacent(CS16Vertex<V> v1, CS16Vertex<V> v2) throws InvalidVertexException {
+
+        if(v1 == null || v2 == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        return this.findEdge(v1.getVertexNumber(), v2.getVertexNumber()) >= 0;
+    }
+
+    /**
+     * Toggles the directedness of the graph.
+     */
+    @Override
+    public void toggleDirected() {
+        _directed = !_directed;
+        this.clear();
+    }
+
+    /**
+     * Clears all the vertices and edges from the graph, shrinking the arrays
+     * back to their initial capacity.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        _vertexSlots = new CS16Vertex[INITIAL_CAPACITY];
+        _outDegree = new int[INITIAL_CAPACITY];
+        _inDegree = new int[INITIAL_CAPACITY];
+        _numSlots = 0;
+        _numVertices = 0;
+
+        _edgeObjs = new CS16Edge[INITIAL_CAPACITY];
+        _edgeSrc = new int[INITIAL_CAPACITY];
+        _edgeDst = new int[INITIAL_CAPACITY];
+        _edgeWeight = new int[INITIAL_CAPACITY];
+        _numEdgeSlots = 0;
+        _numEdges = 0;
+
+        _dirty = true;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     */
+    @Override
+    public int getNumVertices() {
+        return _numVertices;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     */
+    public int getNumEdges() {
+        return _numEdges;
+    }
+
+    /**
+     * Rebuilds the rows if edges or vertices were inserted since they were
+     * last built. Dead edges are dropped from the edge pool first so the
+     * rows only ever hold live edge ids.
+     *
+     * <p>
+     * This runs in O(|V| + |E|) time when a rebuild is needed.
+     * </p>
+     */
+    private void ensureRows() {
+        if(!_dirty){
+            return;
+        }
+
+        this.compactEdges();
+
+        int n = _numSlots;
+        int m = _numEdgeSlots;
+
+        if(_directed){
+            _outTargets = new int[m];
+            _outEdgeIds = new int[m];
+            _outOffsets = this.buildRows(_edgeSrc, _edgeDst, m, n, _outTargets, _outEdgeIds);
+
+            _inSources = new int[m];
+            _inEdgeIds = new int[m];
+            _inOffsets = this.buildRows(_edgeDst, _edgeSrc, m, n, _inSources, _inEdgeIds);
+        } else {
+            // every edge appears in the row of both endpoints, self-loops once
+            int h = 0;
+            int[] rows = new int[2 * m];
+            int[] cols = new int[2 * m];
+            int[] ids = new int[2 * m];
+            for(int e = 0; e < m; e++){
+                rows[h] = _edgeSrc[e];
+                cols[h] = _edgeDst[e];
+                ids[h++] = e;
+                if(_edgeSrc[e] != _edgeDst[e]){
+                    rows[h] = _edgeDst[e];
+                    cols[h] = _edgeSrc[e];
+                    ids[h++] = e;
+                }
+            }
+
+            _outTargets = new int[h];
+            _outEdgeIds = new int[h];
+            _outOffsets = this.buildRows(rows, cols, ids, h, n, _outTargets, _outEdgeIds);
+
+            // incoming and outgoing rows are the same for an undirected graph
+            _inSources = _outTargets;
+            _inEdgeIds = _outEdgeIds;
+            _inOffsets = _outOffsets;
+        }
+
+        _dirty = false;
+    }
+
+    /**
+     * Builds rows from entries whose ids are their own positions.
+     */
+    private int[] buildRows(int[] rows, int[] cols, int h, int n, int[] outCols, int[] outIds) {
+        return this.buildRows(rows, cols, null, h, n, outCols, outIds);
+    }
+
+    /**
+     * Groups the entries (rows[k], cols[k], ids[k]) by row with two stable
+     * counting sorts: first by column, then by row. Each row therefore ends up
+     * sorted by column, with ties kept in insertion order.
+     *
+     * @return the n + 1 row offsets into outCols and outIds
+     */
+    private int[] buildRows(int[] rows, int[] cols, int[] ids, int h, int n, int[] outCols, int[] outIds) {
+
+        // pass 1: order entries by column
+        int[] count = new int[n + 1];
+        for(int k = 0; k < h; k++){
+            count[cols[k] + 1]++;
+        }
+        for(int c = 0; c < n; c++){
+            count[c + 1] += count[c];
+        }
+        int[] byCol = new int[h];
+        for(int k = 0; k < h; k++){
+            byCol[count[cols[k]]++] = k;
+        }
+
+        // pass 2: stable scatter by row
+        int[] offsets = new int[n + 1];
+        for(int k = 0; k < h; k++){
+            offsets[rows[k] + 1]++;
+        }
+        for(int r = 0; r < n; r++){
+            offsets[r + 1] += offsets[r];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        for(int k : byCol){
+            int pos = next[rows[k]]++;
+            outCols[pos] = cols[k];
+            outIds[pos] = ids == null ? k : ids[k];
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Slides live edges down over dead ones so edge ids are dense again.
+     */
+    private void compactEdges() {
+        if(_numEdges == _numEdgeSlots){
+            return;
+        }
+
+        int live = 0;
+        for(int e = 0; e < _numEdgeSlots; e++){
+            if(_edgeSrc[e] >= 0){
+                _edgeObjs[live] = _edgeObjs[e];
+                _edgeSrc[live] = _edgeSrc[e];
+                _edgeDst[live] = _edgeDst[e];
+                _edgeWeight[live] = _edgeWeight[e];
+                live++;
+            }
+        }
+        Arrays.fill(_edgeObjs, live, _numEdgeSlots, null);
+        _numEdgeSlots = live;
+    }
+
+    /**
+     * Returns the id of the most recently inserted live edge from i to j
+     * (or between them, if undirected), or -1 if there is none.
+     */
+    private int findEdge(int i, int j) {
+        this.ensureRows();
+
+        int found = -1;
+        for(int k = this.lowerBound(i, j); k < _outOffsets[i + 1] && _outTargets[k] == j; k++){
+            if(_edgeSrc[_outEdgeIds[k]] >= 0){
+                found = _outEdgeIds[k];
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the first position in row i whose target is at least j.
+     */
+    private int lowerBound(int i, int j) {
+        int lo = _outOffsets[i];
+        int hi = _outOffsets[i + 1];
+        while(lo < hi){
+            int mid = (lo + hi) >>> 1;
+            if(_outTargets[mid] < j){
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Marks an edge as dead. Its row entries are skipped until the next
+     * rebuild drops them.
+     */
+    private void killEdge(int id) {
+        if(_edgeSrc[id] < 0){
+            return;
+        }
+
+        this.addDegrees(_edgeSrc[id], _edgeDst[id], -1);
+        _edgeSrc[id] = -1;
+        _edgeObjs[id] = null;
+        _numEdges--;
+    }
+
+    /**
+     * Returns the object for a live edge id, making it first if the edge
+     * was loaded by insertEdges and hasn't been handed out yet.
+     */
+    private CS16Edge<V> edgeAt(int id) {
+        CS16Edge<V> edge = _edgeObjs[id];
+        if(edge == null){
+            edge = new GraphEdge<>(_edgeWeight[id], _vertexSlots[_edgeSrc[id]], _vertexSlots[_edgeDst[id]]);
+            _edgeObjs[id] = edge;
+        }
+        return edge;
+    }
+
+    /**
+     * Grows the vertex slot and degree arrays to the given capacity.
+     */
+    private void growVertexArrays(int capacity) {
+        _vertexSlots = Arrays.copyOf(_vertexSlots, capacity);
+        _outDegree = Arrays.copyOf(_outDegree, capacity);
+        _inDegree = Arrays.copyOf(_inDegree, capacity);
+    }
+
+    /**
+     * Grows the edge pool arrays to the given capacity.
+     */
+    private void growEdgeArrays(int capacity) {
+        _edgeObjs = Arrays.copyOf(_edgeObjs, capacity);
+        _edgeSrc = Arrays.copyOf(_edgeSrc, capacity);
+        _edgeDst = Arrays.copyOf(_edgeDst, capacity);
+        _edgeWeight = Arrays.copyOf(_edgeWeight, capacity);
+    }
+
+    /**
+     * Adjusts the live degrees of both endpoints of an edge.
+     */
+    private void addDegrees(int i, int j, int delta) {
+        _outDegree[i] += delta;
+        _inDegree[j] += delta;
+        if(!_directed && i != j){
+            _outDegree[j] += delta;
+            _inDegree[i] += delta;
+        }
+    }
+
+    /**
+     * Iterates over the non-null prefix entries of a slot array.
+     */
+    private static class SlotIterator<T> implements Iterator<T> {
+        private final T[] _slots;
+        private final int _end;
+        private int _next;
+
+        SlotIterator(T[] slots, int end) {
+            _slots = slots;
+            _end = end;
+            this.advance();
+        }
+
+        private void advance() {
+            while(_next < _end && _slots[_next] == null){
+                _next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _next < _end;
+        }
+
+        @Override
+        public T next() {
+            if(!this.hasNext()){
+                throw new NoSuchElementException();
+            }
+            T slot = _slots[_next++];
+            this.advance();
+            return slot;
+        }
+    }
+
+    /**
+     * Iterates over the live edges of the edge pool.
+     */
+    private class PoolIterator implements Iterator<CS16Edge<V>> {
+        private final int _end = _numEdgeSlots;
+        private int _next;
+
+        PoolIterator() {
+            this.advance();
+        }
+
+        private void advance() {
+            while(_next < _end && _edgeSrc[_next] < 0){
+                _next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _next < _end;
+        }
+
+        @Override
+        public CS16Edge<V> next() {
+            if(!this.hasNext()){
+                throw new NoSuchElementException();
+            }
+            CS16Edge<V> edge = edgeAt(_next++);
+            this.advance();
+            return edge;
+        }
+    }
+
+    /**
+     * Iterates over the live edges of one row without copying it.
+     */
+    private class RowIterator implements Iterator<CS16Edge<V>> {
+        private final int[] _ids;
+        private final int _end;
+        private int _next;
+
+        RowIterator(int[] ids, int start, int end) {
+            _ids = ids;
+            _next = start;
+            _end = end;
+            this.advance();
+        }
+
+        private void advance() {
+            while(_next < _end && _edgeSrc[_ids[_next]] < 0){
+                _next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _next < _end;
+        }
+
+        @Override
+        public CS16Edge<V> next() {
+            if(!this.hasNext()){
+                throw new NoSuchElementException();
+            }
+            CS16Edge<V> edge = edgeAt(_ids[_next++]);
+            this.advance();
+            return edge;
+        }
+    }
+}
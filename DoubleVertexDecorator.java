@@ -0,0 +1,100 @@
+package graph;
+
+import java.util.Arrays;
+
+import support.graph.CS16Vertex;
+
+/**
+ * A decorator for vertices with double decorations, stored in a double[]
+ * indexed by vertex number. getDouble and setDouble never box; the
+ * CS16Decorator methods box, so that algorithms written against
+ * CS16Decorator can use it unchanged. All methods except getKeys run in
+ * O(1) time.
+ */
+public class DoubleVertexDecorator<V> extends AbstractVertexDecorator<V, Double> {
+
+    private double[] _values;
+
+    /**
+     * Constructor for an empty decorator whose arrays grow as needed.
+     */
+    public DoubleVertexDecorator() {
+        this(0);
+    }
+
+    /**
+     * Constructor for an empty decorator sized for the vertex numbers 0 to
+     * capacity - 1.
+     */
+    public DoubleVertexDecorator(int capacity) {
+        super(capacity);
+        _values = new double[this.capacity()];
+    }
+
+    /**
+     * Returns the decoration of key, or 0.0 if it has none.
+     */
+    public double getDouble(CS16Vertex<V> key) {
+        return this.hasDecoration(key) ? _values[key.getVertexNumber()] : 0.0;
+    }
+
+    /**
+     * Sets the decoration of key to value.
+     */
+    public void setDouble(CS16Vertex<V> key, double value) {
+        // claim may replace _values, so it has to run before the store
+        int slot = this.claim(key);
+        _values[slot] = value;
+    }
+
+    /**
+     * Gets the decoration associated with the given key.
+     *
+     * @param key
+     *          the key used to retrieve a specific value.
+     * @return the value associated with the key parameter, or null if it
+     *          has none
+     */
+    @Override
+    public Double getDecoration(CS16Vertex<V> key) {
+        return this.hasDecoration(key) ? _values[key.getVertexNumber()] : null;
+    }
+
+    /**
+     * Sets the decoration for the specified key to value. A null value
+     * removes the decoration, since there is no null double.
+     *
+     * @param key
+     *          the key that will be used to retrieve your value
+     * @param value
+     *          the value associated with your key
+     */
+    @Override
+    public void setDecoration(CS16Vertex<V> key, Double value) {
+        if(value == null){
+            this.removeDecoration(key);
+        } else {
+            this.setDouble(key, value);
+        }
+    }
+
+    /**
+     * Removes the decoration for the given key and returns the value associated
+     * with it.
+     *
+     * @param key
+     *          key associated with a value
+     * @return value removed, or null if it had none
+     */
+    @Override
+    public Double removeDecoration(CS16Vertex<V> key) {
+        Double value = this.getDecoration(key);
+        this.release(key);
+        return value;
+    }
+
+    @Override
+    protected void growValues(int capacity) {
+        _values = Arrays.copyOf(_values, capacity);
+    }
+}
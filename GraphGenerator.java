@@ -0,0 +1,602 @@
+package graph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * This class generates large synthetic graphs for scale testing. There are
+ * four models:
+ *
+ * <ul>
+ * <li>R-MAT, the recursive matrix model of the Graph500 Kronecker
+ * generator, which gives a skewed, power-law-like degree distribution;</li>
+ * <li>Barabasi-Albert preferential attachment;</li>
+ * <li>random geometric graphs, points in the unit square linked when they
+ * are close together;</li>
+ * <li>2D grids.</li>
+ * </ul>
+ *
+ * A generator is only its parameters and a seed: the same generator always
+ * produces the same edges in the same order. The edges are streamed out one
+ * at a time, to an EdgeSink, into a Graph, or into a links file, and never
+ * collected into a list, so graphs with tens of millions of edges can be
+ * made in little more memory than the graph they end up in. Vertices are
+ * numbered 0 to |V| - 1 and named "v0", "v1", ... and weights are between
+ * 1 and 100.
+ */
+public abstract class GraphGenerator {
+
+    /**
+     * Receives the edges of a generated graph, as the numbers of their end
+     * vertices and their weight.
+     */
+    public interface EdgeSink {
+        void edge(int source, int target, int weight);
+    }
+
+    private static final int MAX_WEIGHT = 100;
+    // how many edges are collected before they're inserted into a graph
+    private static final int BATCH_SIZE = 1 << 12;
+    // size of the links file output buffer
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // the R-MAT quadrant probabilities used by Graph500; d is 1 - a - b - c
+    private static final double RMAT_A = 0.57;
+    private static final double RMAT_B = 0.19;
+    private static final double RMAT_C = 0.19;
+
+    final int _numVertices;
+    final long _seed;
+
+    GraphGenerator(int numVertices, long seed) {
+        _numVertices = numVertices;
+        _seed = seed;
+    }
+
+    /**
+     * Returns an R-MAT generator for 2^scale vertices and edgeFactor * 2^scale
+     * directed edges. Every edge picks one quadrant of the adjacency matrix
+     * per bit of the vertex numbers, with the Graph500 probabilities, and
+     * the vertex numbers are then scrambled so the high-degree vertices
+     * aren't all at the start. Self-loops are drawn again, but the same
+     * edge can come up more than once.
+     */
+    public static GraphGenerator rmat(int scale, int edgeFactor, long seed) {
+        if(scale < 1 || scale > 30 || edgeFactor < 1){
+            throw new IllegalArgumentException("R-MAT needs a scale from 1 to 30 and a positive edge factor.");
+        }
+        return new RMat(scale, edgeFactor, seed);
+    }
+
+    /**
+     * Returns a Barabasi-Albert generator for numVertices vertices. The
+     * first linksPerVertex vertices start out unlinked, and every later
+     * vertex links to linksPerVertex distinct earlier vertices, picked with
+     * probability proportional to their degree, for
+     * (numVertices - linksPerVertex) * linksPerVertex edges in all.
+     */
+    public static GraphGenerator barabasiAlbert(int numVertices, int linksPerVertex, long seed) {
+        if(linksPerVertex < 1 || numVertices <= linksPerVertex){
+            throw new IllegalArgumentException("Barabasi-Albert needs more vertices than links per vertex.");
+        }
+        return new BarabasiAlbert(numVertices, linksPerVertex, seed);
+    }
+
+    /**
+     * Returns a random geometric graph generator: numVertices points placed
+     * uniformly in the unit square, with an edge between every two points
+     * at most radius apart. Weights grow with the distance, from 1 for
+     * points on top of each other to 100 for points radius apart. The
+     * average degree is about numVertices * pi * radius^2.
+     */
+    public static GraphGenerator geometric(int numVertices, double radius, long seed) {
+        if(numVertices < 0 || !(radius > 0)){
+            throw new IllegalArgumentException("A geometric graph needs a positive radius.");
+        }
+        return new Geometric(numVertices, radius, seed);
+    }
+
+    /**
+     * Returns a generator for a rows x columns grid, where vertex
+     * row * columns + column links to its right and lower neighbors with
+     * random weights.
+     */
+    public static GraphGenerator grid(int rows, int columns, long seed) {
+        if(rows < 0 || columns < 0 || (long) rows * columns > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("A grid can't have " + rows + " x " + columns + " vertices.");
+        }
+        return new Grid(rows, columns, seed);
+    }
+
+    public int getNumVertices() {
+        return _numVertices;
+    }
+
+    /**
+     * Returns how many edges generate makes: exactly for every model but
+     * the geometric one, where it's the expected number.
+     */
+    public abstract long expectedNumEdges();
+
+    /**
+     * Hands every edge of the graph to sink, in order.
+     *
+     * <p>
+     * This runs in O(|V| + |E|) time, O(|E| log |V|) for R-MAT.
+     * </p>
+     */
+    public abstract void generate(EdgeSink sink);
+
+    /**
+     * Inserts the generated vertices and edges into graph, on top of
+     * whatever it already holds, and returns the new vertices by number.
+     * A BulkLoadable graph is sized up front and given the edges in
+     * batches through insertEdges; any other graph gets them one
+     * insertEdge at a time.
+     *
+     * <p>
+     * This runs in the time of generate, plus the graph's insert times.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public CS16Vertex<String>[] generateInto(Graph<String> graph) {
+        if(graph instanceof BulkLoadable){
+            int expectedEdges = (int) Math.min(this.expectedNumEdges(), Integer.MAX_VALUE);
+            ((BulkLoadable<String>) graph).ensureCapacity(_numVertices, expectedEdges);
+        }
+
+        CS16Vertex<String>[] vertices = new CS16Vertex[_numVertices];
+        for(int v = 0; v < _numVertices; v++){
+            vertices[v] = graph.insertVertex("v" + v);
+        }
+
+        GraphInserter inserter = new GraphInserter(graph, vertices);
+        this.generate(inserter);
+        inserter.flush();
+        return vertices;
+    }
+
+    /**
+     * Writes the generated graph to file as a links file, which
+     * LinksFileLoader and the app can read. The vertex coordinates only
+     * matter to the visualizer, so the vertices are simply laid out in a
+     * square.
+     *
+     * <p>
+     * This runs in the time of generate, plus the time to write the file.
+     * </p>
+     */
+    public void writeLinks(Path file) throws IOException {
+        try(OutputStream out = Files.newOutputStream(file)){
+            LinksWriter writer = new LinksWriter(out);
+            int side = Math.max(1, (int) Math.ceil(Math.sqrt(_numVertices)));
+
+            writer.writeAscii("*** VERTICES ***\n");
+            for(int v = 0; v < _numVertices; v++){
+                writer.writeName(v);
+                writer.writeByte(' ');
+                writer.writeInt(10 * (v % side));
+                writer.writeByte(' ');
+                writer.writeInt(10 * (v / side));
+                writer.writeByte('\n');
+            }
+
+            writer.writeAscii("*** EDGES ***\n");
+            this.generate(writer);
+            writer.flush();
+        } catch(UncheckedIOException e){
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes a generated links file, for scaling experiments:
+     *
+     * <pre>
+     * rmat scale edgeFactor seed file
+     * ba numVertices linksPerVertex seed file
+     * geometric numVertices radius seed file
+     * grid rows columns seed file
+     * </pre>
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length != 5){
+            System.err.println("usage: GraphGenerator rmat|ba|geometric|grid param1 param2 seed file");
+            System.exit(1);
+        }
+
+        long seed = Long.parseLong(args[3]);
+        GraphGenerator generator;
+        switch(args[0]){
+            case "rmat":
+                generator = rmat(Integer.parseInt(args[1]), Integer.parseInt(args[2]), seed);
+                break;
+            case "ba":
+                generator = barabasiAlbert(Integer.parseInt(args[1]), Integer.parseInt(args[2]), seed);
+                break;
+            case "geometric":
+                generator = geometric(Integer.parseInt(args[1]), Double.parseDouble(args[2]), seed);
+                break;
+            case "grid":
+                generator = grid(Integer.parseInt(args[1]), Integer.parseInt(args[2]), seed);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown model " + args[0] + ".");
+        }
+        generator.writeLinks(Paths.get(args[4]));
+    }
+
+    private static int randomWeight(SplittableRandom random) {
+        return 1 + random.nextInt(MAX_WEIGHT);
+    }
+
+    private static class RMat extends GraphGenerator {
+
+        private final int _scale;
+        private final long _numEdges;
+
+        RMat(int scale, int edgeFactor, long seed) {
+            super(1 << scale, seed);
+            _scale = scale;
+            _numEdges = (long) edgeFactor << scale;
+        }
+
+        @Override
+        public long expectedNumEdges() {
+            return _numEdges;
+        }
+
+        @Override
+        public void generate(EdgeSink sink) {
+            SplittableRandom random = new SplittableRandom(_seed);
+            // v -> v * multiplier + offset is a permutation mod 2^scale when
+            // the multiplier is odd
+            long multiplier = random.nextLong() | 1;
+            long offset = random.nextLong();
+            long mask = _numVertices - 1;
+
+            for(long e = 0; e < _numEdges; e++){
+                int source;
+                int target;
+                do{
+                    source = 0;
+                    target = 0;
+                    for(int bit = _scale - 1; bit >= 0; bit--){
+                        double r = random.nextDouble();
+                        if(r >= RMAT_A + RMAT_B){
+                            source |= 1 << bit;
+                        }
+                        if((r >= RMAT_A && r < RMAT_A + RMAT_B) || r >= RMAT_A + RMAT_B + RMAT_C){
+                            target |= 1 << bit;
+                        }
+                    }
+                } while(source == target);
+
+                sink.edge((int) ((source * multiplier + offset) & mask), (int) ((target * multiplier + offset) & mask),
+                        randomWeight(random));
+            }
+        }
+    }
+
+    private static class BarabasiAlbert extends GraphGenerator {
+
+        private final int _links;
+
+        BarabasiAlbert(int numVertices, int linksPerVertex, long seed) {
+            super(numVertices, seed);
+            _links = linksPerVertex;
+        }
+
+        @Override
+        public long expectedNumEdges() {
+            return (long) (_numVertices - _links) * _links;
+        }
+
+        /**
+         * Picking a vertex with probability proportional to its degree is
+         * picking a uniformly random end of an earlier edge. The source of
+         * edge e is always _links + e / _links, so only the targets need to
+         * be kept, off the heap, at 4 bytes an edge.
+         */
+        @Override
+        public void generate(EdgeSink sink) {
+            SplittableRandom random = new SplittableRandom(_seed);
+            long numEdges = this.expectedNumEdges();
+            if(numEdges > Integer.MAX_VALUE){
+                throw new IllegalStateException("Barabasi-Albert can make at most 2^31 - 1 edges.");
+            }
+            OffHeapIntArray targets = new OffHeapIntArray();
+            targets.ensureCapacity(numEdges);
+
+            int e = 0;
+            for(int v = _links; v < _numVertices; v++){
+                int first = e;
+                while(e - first < _links){
+                    int target;
+                    if(first == 0){
+                        // the first vertex links to every starting vertex
+                        target = e;
+                    } else {
+                        int end = random.nextInt(2 * first);
+                        target = (end & 1) == 0 ? _links + (end >>> 1) / _links : targets.get(end >>> 1);
+                    }
+
+                    boolean picked = false;
+                    for(int k = first; k < e && !picked; k++){
+                        picked = targets.get(k) == target;
+                    }
+                    if(!picked){
+                        targets.set(e++, target);
+                        sink.edge(v, target, randomWeight(random));
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Geometric extends GraphGenerator {
+
+        private final double _radius;
+
+        Geometric(int numVertices, double radius, long seed) {
+            super(numVertices, seed);
+            _radius = radius;
+        }
+
+        @Override
+        public long expectedNumEdges() {
+            double area = Math.min(1, Math.PI * _radius * _radius);
+            return (long) (area * _numVertices * (_numVertices - 1) / 2);
+        }
+
+        /**
+         * The square is split into cells at least the radius wide, so every
+         * point only needs comparing with the points in its own cell and
+         * the neighboring ones. The points are drawn twice from the same
+         * seed, once to count the points in each cell and once to store
+         * them sorted by cell, so the only memory used is the points
+         * themselves and a counter per cell.
+         */
+        @Override
+        public void generate(EdgeSink sink) {
+            int n = _numVertices;
+            // at most about one cell per point
+            int side = (int) Math.max(1, Math.min(Math.floor(1 / _radius), Math.ceil(Math.sqrt(n))));
+
+            // cellStart[c] is where cell c's points start in the sorted arrays
+            int[] cellStart = new int[side * side + 1];
+            SplittableRandom random = new SplittableRandom(_seed);
+            for(int v = 0; v < n; v++){
+                float x = (float) random.nextDouble();
+                float y = (float) random.nextDouble();
+                cellStart[cell(x, y, side) + 1]++;
+            }
+            for(int c = 0; c < side * side; c++){
+                cellStart[c + 1] += cellStart[c];
+            }
+
+            float[] xs = new float[n];
+            float[] ys = new float[n];
+            int[] ids = new int[n];
+            int[] next = new int[side * side];
+            System.arraycopy(cellStart, 0, next, 0, side * side);
+            random = new SplittableRandom(_seed);
+            for(int v = 0; v < n; v++){
+                float x = (float) random.nextDouble();
+                float y = (float) random.nextDouble();
+                int slot = next[cell(x, y, side)]++;
+                xs[slot] = x;
+                ys[slot] = y;
+                ids[slot] = v;
+            }
+
+            // each pair of neighboring cells is visited once, from the
+            // cell above or to the left
+            for(int cy = 0; cy < side; cy++){
+                for(int cx = 0; cx < side; cx++){
+                    int c = cy * side + cx;
+                    for(int i = cellStart[c]; i < cellStart[c + 1]; i++){
+                        this.link(i, i + 1, cellStart[c + 1], xs, ys, ids, sink);
+                        if(cx + 1 < side){
+                            this.link(i, cellStart[c + 1], cellStart[c + 2], xs, ys, ids, sink);
+                        }
+                        if(cy + 1 < side){
+                            int below = c + side;
+                            int from = cellStart[cx > 0 ? below - 1 : below];
+                            int to = cellStart[cx + 1 < side ? below + 2 : below + 1];
+                            this.link(i, from, to, xs, ys, ids, sink);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Links point i to the points [from, to) that are close enough.
+         */
+        private void link(int i, int from, int to, float[] xs, float[] ys, int[] ids, EdgeSink sink) {
+            double radiusSquared = _radius * _radius;
+            for(int j = from; j < to; j++){
+                double dx = xs[i] - xs[j];
+                double dy = ys[i] - ys[j];
+                double distanceSquared = dx * dx + dy * dy;
+                if(distanceSquared <= radiusSquared){
+                    int weight = 1 + (int) ((MAX_WEIGHT - 1) * Math.sqrt(distanceSquared) / _radius);
+                    sink.edge(ids[i], ids[j], weight);
+                }
+            }
+        }
+
+        private static int cell(float x, float y, int side) {
+            int cx = Math.min(side - 1, (int) (x * side));
+            int cy = Math.min(side - 1, (int) (y * side));
+            return cy * side + cx;
+        }
+    }
+
+    private static class Grid extends GraphGenerator {
+
+        private final int _rows;
+        private final int _columns;
+
+        Grid(int rows, int columns, long seed) {
+            super(rows * columns, seed);
+            _rows = rows;
+            _columns = columns;
+        }
+
+        @Override
+        public long expectedNumEdges() {
+            if(_numVertices == 0){
+                return 0;
+            }
+            return (long) _rows * (_columns - 1) + (long) (_rows - 1) * _columns;
+        }
+
+        @Override
+        public void generate(EdgeSink sink) {
+            SplittableRandom random = new SplittableRandom(_seed);
+            for(int r = 0; r < _rows; r++){
+                for(int c = 0; c < _columns; c++){
+                    int v = r * _columns + c;
+                    if(c + 1 < _columns){
+                        sink.edge(v, v + 1, randomWeight(random));
+                    }
+                    if(r + 1 < _rows){
+                        sink.edge(v, v + _columns, randomWeight(random));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts edges into a graph in fixed-size batches, like
+     * LinksFileLoader does.
+     */
+    private static class GraphInserter implements EdgeSink {
+
+        private final Graph<String> _graph;
+        private final CS16Vertex<String>[] _vertices;
+        private final int[] _sources = new int[BATCH_SIZE];
+        private final int[] _targets = new int[BATCH_SIZE];
+        private final int[] _weights = new int[BATCH_SIZE];
+        private int _batchSize;
+
+        GraphInserter(Graph<String> graph, CS16Vertex<String>[] vertices) {
+            _graph = graph;
+            _vertices = vertices;
+        }
+
+        @Override
+        public void edge(int source, int target, int weight) {
+            _sources[_batchSize] = source;
+            _targets[_batchSize] = target;
+            _weights[_batchSize] = weight;
+            _batchSize++;
+
+            if(_batchSize == BATCH_SIZE){
+                this.flush();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void flush() {
+            if(_graph instanceof BulkLoadable){
+                ((BulkLoadable<String>) _graph).insertEdges(_vertices, _sources, _targets, _weights, _batchSize);
+            } else {
+                for(int k = 0; k < _batchSize; k++){
+                    _graph.insertEdge(_vertices[_sources[k]], _vertices[_targets[k]], _weights[k]);
+                }
+            }
+            _batchSize = 0;
+        }
+    }
+
+    /**
+     * Writes links file lines into a byte buffer, formatting the numbers
+     * itself so no Strings are made per edge. Write errors are rethrown
+     * unchecked, since EdgeSink can't throw IOException, and unwrapped
+     * again by writeLinks.
+     */
+    private static class LinksWriter implements EdgeSink {
+
+        private final OutputStream _out;
+        private final byte[] _buffer = new byte[BUFFER_SIZE];
+        private int _length;
+
+        LinksWriter(OutputStream out) {
+            _out = out;
+        }
+
+        @Override
+        public void edge(int source, int target, int weight) {
+            this.writeName(source);
+            this.writeByte(' ');
+            this.writeName(target);
+            this.writeByte(' ');
+            this.writeInt(weight);
+            this.writeByte('\n');
+        }
+
+        void writeName(int v) {
+            this.writeByte('v');
+            this.writeInt(v);
+        }
+
+        void writeAscii(String text) {
+            for(byte b : text.getBytes(StandardCharsets.US_ASCII)){
+                this.writeByte(b);
+            }
+        }
+
+        void writeInt(int value) {
+            // an int has at most 11 characters
+            if(_length + 11 > BUFFER_SIZE){
+                this.flush();
+            }
+            if(value < 0){
+                _buffer[_length++] = '-';
+            }
+
+            int start = _length;
+            long rest = Math.abs((long) value);
+            do{
+                _buffer[_length++] = (byte) ('0' + rest % 10);
+                rest /= 10;
+            } while(rest > 0);
+
+            // the digits came out backwards
+            for(int i = start, j = _length - 1; i < j; i++, j--){
+                byte digit = _buffer[i];
+                _buffer[i] = _buffer[j];
+                _buffer[j] = digit;
+            }
+        }
+
+        void writeByte(int b) {
+            if(_length == BUFFER_SIZE){
+                this.flush();
+            }
+            _buffer[_length++] = (byte) b;
+        }
+
+        void flush() {
+            try{
+                _out.write(_buffer, 0, _length);
+            } catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+            _length = 0;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * This class tests the models of GraphGenerator, and streaming their edges
+ * into graphs and links files.
+ */
+public class GraphGeneratorTest {
+
+    /**
+     * Collects the generated edges as "source target weight" strings, in
+     * the order they come out.
+     */
+    private static List<String> edges(GraphGenerator generator) {
+        List<String> edges = new ArrayList<>();
+        generator.generate((source, target, weight) -> edges.add(source + " " + target + " " + weight));
+        return edges;
+    }
+
+    /**
+     * Collects the generated edges as "source target" pairs, smaller end
+     * first.
+     */
+    private static Set<String> pairs(GraphGenerator generator) {
+        Set<String> pairs = new HashSet<>();
+        generator.generate((source, target, weight) -> pairs.add(Math.min(source, target) + " " + Math.max(source, target)));
+        return pairs;
+    }
+
+    /**
+     * Counts the edges at a vertex.
+     */
+    private static int degree(Graph<String> graph, CS16Vertex<String> vertex) {
+        int count = 0;
+        Iterator<CS16Edge<String>> it = graph.incomingEdges(vertex);
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Lists the edges of a graph as "source target weight" strings, sorted.
+     */
+    private static List<String> edgeList(Graph<String> graph) {
+        List<String> edges = new ArrayList<>();
+        Iterator<CS16Edge<String>> it = graph.edges();
+        while (it.hasNext()) {
+            CS16Edge<String> edge = it.next();
+            edges.add(edge.getVertexOne().element() + " " + edge.getVertexTwo().element() + " " + edge.element());
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    /**
+     * The same seed gives the same edges in the same order, and another
+     * seed gives different ones.
+     */
+    @Test(timeout = 10000)
+    public void testSeeded() {
+        assertEquals(edges(GraphGenerator.rmat(8, 4, 1)), edges(GraphGenerator.rmat(8, 4, 1)));
+        assertNotEquals(edges(GraphGenerator.rmat(8, 4, 1)), edges(GraphGenerator.rmat(8, 4, 2)));
+        assertEquals(edges(GraphGenerator.barabasiAlbert(300, 3, 5)), edges(GraphGenerator.barabasiAlbert(300, 3, 5)));
+        assertEquals(edges(GraphGenerator.geometric(300, 0.1, 5)), edges(GraphGenerator.geometric(300, 0.1, 5)));
+    }
+
+    /**
+     * R-MAT makes exactly edgeFactor * 2^scale edges, none of them loops,
+     * and its degrees are far from even.
+     */
+    @Test(timeout = 10000)
+    public void testRmat() {
+        GraphGenerator generator = GraphGenerator.rmat(10, 8, 3);
+        assertEquals(1024, generator.getNumVertices());
+
+        int[] degrees = new int[1024];
+        List<String> edges = edges(generator);
+        assertEquals(8 * 1024, edges.size());
+        assertEquals(8 * 1024, generator.expectedNumEdges());
+        for (String edge : edges) {
+            String[] parts = edge.split(" ");
+            int source = Integer.parseInt(parts[0]);
+            assertNotEquals(source, Integer.parseInt(parts[1]));
+            degrees[source]++;
+        }
+
+        int max = 0;
+        for (int degree : degrees) {
+            max = Math.max(max, degree);
+        }
+        assertTrue(max > 8 * 8);
+    }
+
+    /**
+     * Every Barabasi-Albert vertex after the first few links to distinct
+     * earlier vertices, and early vertices end up with the most links.
+     */
+    @Test(timeout = 10000)
+    public void testBarabasiAlbert() {
+        int n = 2000;
+        int links = 4;
+        GraphGenerator generator = GraphGenerator.barabasiAlbert(n, links, 11);
+        List<String> edges = edges(generator);
+        assertEquals((n - links) * links, edges.size());
+        assertEquals(edges.size(), pairs(generator).size());
+
+        int[] degrees = new int[n];
+        for (String edge : edges) {
+            String[] parts = edge.split(" ");
+            int source = Integer.parseInt(parts[0]);
+            int target = Integer.parseInt(parts[1]);
+            assertTrue(target < source);
+            degrees[source]++;
+            degrees[target]++;
+        }
+        assertTrue(degrees[links] > 10 * links);
+        assertEquals(links, degrees[n - 1]);
+    }
+
+    /**
+     * A radius past the diagonal links every pair, and a larger radius
+     * keeps every edge of a smaller one.
+     */
+    @Test(timeout = 10000)
+    public void testGeometric() {
+        int n = 400;
+        assertEquals(n * (n - 1) / 2, pairs(GraphGenerator.geometric(n, 1.5, 7)).size());
+
+        Set<String> small = pairs(GraphGenerator.geometric(n, 0.05, 7));
+        Set<String> large = pairs(GraphGenerator.geometric(n, 0.12, 7));
+        assertFalse(small.isEmpty());
+        assertTrue(large.size() > small.size());
+        assertTrue(large.containsAll(small));
+
+        for (String edge : edges(GraphGenerator.geometric(n, 0.05, 7))) {
+            int weight = Integer.parseInt(edge.split(" ")[2]);
+            assertTrue(weight >= 1 && weight <= 100);
+        }
+    }
+
+    /**
+     * A grid streamed into a graph has the expected degrees.
+     */
+    @Test(timeout = 10000)
+    public void testGridIntoGraph() {
+        GraphGenerator generator = GraphGenerator.grid(30, 40, 0);
+        assertEquals(30 * 39 + 29 * 40, generator.expectedNumEdges());
+
+        for (Graph<String> graph : Arrays.<Graph<String>>asList(new CsrGraph<String>(false),
+                AdjacencyMatrixGraph.<String>growable(false))) {
+            CS16Vertex<String>[] vertices = generator.generateInto(graph);
+            assertEquals(1200, graph.getNumVertices());
+            assertEquals(generator.expectedNumEdges(), edgeList(graph).size());
+            assertEquals(2, degree(graph, vertices[0]));
+            assertEquals(3, degree(graph, vertices[5]));
+            assertEquals(4, degree(graph, vertices[45]));
+            assertTrue(graph.areAdjacent(vertices[45], vertices[85]));
+        }
+    }
+
+    /**
+     * A written links file loads back into the same graph that
+     * generateInto makes.
+     */
+    @Test(timeout = 10000)
+    public void testWriteLinks() throws IOException {
+        GraphGenerator generator = GraphGenerator.rmat(9, 4, 21);
+        Path file = Files.createTempFile("generated", "_links.txt");
+        try {
+            generator.writeLinks(file);
+
+            CsrGraph<String> loaded = new CsrGraph<>(true);
+            new LinksFileLoader().load(file, loaded);
+            CsrGraph<String> generated = new CsrGraph<>(true);
+            generator.generateInto(generated);
+
+            assertEquals(512, loaded.getNumVertices());
+            assertEquals(edgeList(generated), edgeList(loaded));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
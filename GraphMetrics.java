@@ -0,0 +1,273 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class collects timings of graph operations and algorithm phases,
+ * so a slow job can be traced to the calls it spends its time in. There
+ * are two kinds of metric, both looked up by name:
+ *
+ * <ul>
+ * <li>timers, which count calls and keep their total, largest and a
+ * histogram of their latencies, plus how many edges the calls scanned
+ * (see MeteredGraph);</li>
+ * <li>iteration series, which keep the time of every iteration of an
+ * algorithm in order (see MyPageRank.setMetrics).</li>
+ * </ul>
+ *
+ * Metrics are off unless a GraphMetrics is handed to a MeteredGraph or an
+ * algorithm, and an algorithm without one only pays a null check per
+ * phase. Like the graphs, a GraphMetrics is not thread-safe.
+ */
+public class GraphMetrics {
+
+    // histogram bucket b counts latencies in [2^(b - 1), 2^b) ns, and bucket
+    // 0 counts latencies of 0
+    private static final int NUM_BUCKETS = 64;
+
+    private final Map<String, Timer> _timers = new LinkedHashMap<>();
+    private final Map<String, Series> _series = new LinkedHashMap<>();
+
+    /**
+     * The calls to one operation or phase.
+     */
+    public static class Timer {
+        private long _count;
+        private long _totalNanos;
+        private long _maxNanos;
+        private long _edgesScanned;
+        private final long[] _buckets = new long[NUM_BUCKETS];
+
+        /**
+         * Records one call that took nanos nanoseconds.
+         *
+         * <p>
+         * This runs in O(1) time.
+         * </p>
+         */
+        public void record(long nanos) {
+            nanos = Math.max(0, nanos);
+            _count++;
+            _totalNanos += nanos;
+            _maxNanos = Math.max(_maxNanos, nanos);
+            _buckets[Math.min(NUM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos))]++;
+        }
+
+        /**
+         * Adds to the number of edges the calls scanned.
+         */
+        public void addEdgesScanned(long edges) {
+            _edgesScanned += edges;
+        }
+
+        /**
+         * Forgets every call recorded so far.
+         */
+        void reset() {
+            _count = 0;
+            _totalNanos = 0;
+            _maxNanos = 0;
+            _edgesScanned = 0;
+            Arrays.fill(_buckets, 0);
+        }
+
+        public long getCount() {
+            return _count;
+        }
+
+        public long getTotalNanos() {
+            return _totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return _maxNanos;
+        }
+
+        public long getEdgesScanned() {
+            return _edgesScanned;
+        }
+
+        /**
+         * Returns an upper bound on the given percentile of the latencies,
+         * from the histogram: the top of the bucket it falls in, or 0 if
+         * nothing has been recorded.
+         *
+         * @param percentile between 0 and 100
+         */
+        public long getPercentileNanos(double percentile) {
+            long rank = (long) Math.ceil(_count * percentile / 100);
+            long seen = 0;
+            for(int b = 0; b < NUM_BUCKETS; b++){
+                seen += _buckets[b];
+                if(seen >= rank && seen > 0){
+                    return Math.min(_maxNanos, upperBound(b));
+                }
+            }
+            return _maxNanos;
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+        }
+    }
+
+    /**
+     * The time of every iteration of one algorithm, in order.
+     */
+    private static class Series {
+        private long[] _nanos = new long[16];
+        private int _size;
+
+        void add(long nanos) {
+            if(_size == _nanos.length){
+                _nanos = Arrays.copyOf(_nanos, 2 * _size);
+            }
+            _nanos[_size++] = nanos;
+        }
+    }
+
+    /**
+     * Returns the timer with the given name, making it if it's new.
+     * Callers on a hot path should look their timer up once and keep it.
+     */
+    public Timer timer(String name) {
+        Timer timer = _timers.get(name);
+        if(timer == null){
+            timer = new Timer();
+            _timers.put(name, timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Records one call to the named timer.
+     */
+    public void record(String name, long nanos) {
+        this.timer(name).record(nanos);
+    }
+
+    /**
+     * Adds the time of the next iteration to the named series.
+     */
+    public void recordIteration(String name, long nanos) {
+        Series series = _series.get(name);
+        if(series == null){
+            series = new Series();
+            _series.put(name, series);
+        }
+        series.add(nanos);
+    }
+
+    /**
+     * Returns the timers recorded so far, by name, in the order they were
+     * first used.
+     */
+    public Map<String, Timer> getTimers() {
+        return _timers;
+    }
+
+    /**
+     * Returns the iteration times in the named series, or an empty array
+     * if there are none.
+     */
+    public long[] getIterations(String name) {
+        Series series = _series.get(name);
+        return series == null ? new long[0] : Arrays.copyOf(series._nanos, series._size);
+    }
+
+    /**
+     * Forgets everything recorded so far. The timers are zeroed in place
+     * rather than dropped, so the ones a MeteredGraph or an algorithm has
+     * kept go on recording into these metrics.
+     */
+    public void reset() {
+        for(Timer timer : _timers.values()){
+            timer.reset();
+        }
+        _series.clear();
+    }
+
+    /**
+     * Returns the metrics as a JSON object:
+     *
+     * <pre>
+     * {"timers": {"name": {"count": .., "totalNanos": .., "meanNanos": ..,
+     *                      "maxNanos": .., "p50Nanos": .., "p99Nanos": ..,
+     *                      "edgesScanned": .., "histogram": [[upper bound in ns, count], ..]}, ..},
+     *  "iterations": {"name": [ns, ..], ..}}
+     * </pre>
+     *
+     * The histogram only lists its non-empty buckets.
+     *
+     * <p>
+     * This runs in O(number of timers + number of iterations) time.
+     * </p>
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"timers\": {");
+        boolean first = true;
+        for(Map.Entry<String, Timer> entry : _timers.entrySet()){
+            Timer timer = entry.getValue();
+            if(!first){
+                json.append(", ");
+            }
+            first = false;
+
+            appendString(json, entry.getKey());
+            json.append(": {\"count\": ").append(timer._count);
+            json.append(", \"totalNanos\": ").append(timer._totalNanos);
+            json.append(", \"meanNanos\": ").append(timer._count == 0 ? 0 : timer._totalNanos / timer._count);
+            json.append(", \"maxNanos\": ").append(timer._maxNanos);
+            json.append(", \"p50Nanos\": ").append(timer.getPercentileNanos(50));
+            json.append(", \"p99Nanos\": ").append(timer.getPercentileNanos(99));
+            json.append(", \"edgesScanned\": ").append(timer._edgesScanned);
+            json.append(", \"histogram\": [");
+            boolean firstBucket = true;
+            for(int b = 0; b < NUM_BUCKETS; b++){
+                if(timer._buckets[b] > 0){
+                    json.append(firstBucket ? "[" : ", [").append(Timer.upperBound(b)).append(", ").append(timer._buckets[b]).append(']');
+                    firstBucket = false;
+                }
+            }
+            json.append("]}");
+        }
+
+        json.append("}, \"iterations\": {");
+        first = true;
+        for(Map.Entry<String, Series> entry : _series.entrySet()){
+            Series series = entry.getValue();
+            if(!first){
+                json.append(", ");
+            }
+            first = false;
+
+            appendString(json, entry.getKey());
+            json.append(": [");
+            for(int i = 0; i < series._size; i++){
+                json.append(i == 0 ? "" : ", ").append(series._nanos[i]);
+            }
+            json.append(']');
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Appends text as a JSON string, escaping what needs it.
+     */
+    private static void appendString(StringBuilder json, String text) {
+        json.append('"');
+        for(int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            if(c == '"' || c == '\\'){
+                json.append('\\').append(c);
+            } else if(c < 0x20){
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,191 @@
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * This class tests GraphMetrics, MeteredGraph, and the metrics recorded
+ * by MyPageRank and MyPrimJarnik.
+ */
+public class GraphMetricsTest {
+
+    /**
+     * Makes a small directed graph with a sink (D) in it.
+     */
+    @SuppressWarnings("unchecked")
+    private static CS16Vertex<String>[] buildGraph(Graph<String> graph) {
+        CS16Vertex<String>[] vertices = new CS16Vertex[4];
+        for (int v = 0; v < 4; v++) {
+            vertices[v] = graph.insertVertex("ABCD".substring(v, v + 1));
+        }
+        graph.insertEdge(vertices[0], vertices[1], 1);
+        graph.insertEdge(vertices[1], vertices[2], 2);
+        graph.insertEdge(vertices[2], vertices[0], 3);
+        graph.insertEdge(vertices[2], vertices[3], 4);
+        return vertices;
+    }
+
+    /**
+     * The histogram bounds the percentiles from above, and never past the
+     * largest latency.
+     */
+    @Test(timeout = 10000)
+    public void testTimer() {
+        GraphMetrics.Timer timer = new GraphMetrics().timer("t");
+        timer.record(0);
+        timer.record(1);
+        timer.record(1000);
+        timer.record(1000);
+
+        assertEquals(4, timer.getCount());
+        assertEquals(2001, timer.getTotalNanos());
+        assertEquals(1000, timer.getMaxNanos());
+        assertEquals(1, timer.getPercentileNanos(50));
+        assertEquals(1000, timer.getPercentileNanos(99));
+    }
+
+    /**
+     * Every call through a MeteredGraph is counted, and iterating over
+     * edges adds to the edges scanned.
+     */
+    @Test(timeout = 10000)
+    public void testMeteredGraph() {
+        GraphMetrics metrics = new GraphMetrics();
+        MeteredGraph<String> graph = new MeteredGraph<>(new CsrGraph<String>(true), metrics);
+        CS16Vertex<String>[] vertices = buildGraph(graph);
+
+        Iterator<CS16Edge<String>> it = graph.outgoingEdges(vertices[2]);
+        while (it.hasNext()) {
+            assertSame(vertices[2], it.next().getVertexOne());
+        }
+        graph.incomingEdges(vertices[0]);
+        assertTrue(graph.areAdjacent(vertices[0], vertices[1]));
+
+        Map<String, GraphMetrics.Timer> timers = metrics.getTimers();
+        assertEquals(4, timers.get("Graph.insertVertex").getCount());
+        assertEquals(4, timers.get("Graph.insertEdge").getCount());
+        assertEquals(1, timers.get("Graph.outgoingEdges").getCount());
+        assertEquals(2, timers.get("Graph.outgoingEdges").getEdgesScanned());
+        assertEquals(1, timers.get("Graph.incomingEdges").getCount());
+        assertEquals(0, timers.get("Graph.incomingEdges").getEdgesScanned());
+        assertEquals(1, timers.get("Graph.areAdjacent").getCount());
+        assertEquals(0, timers.get("Graph.removeEdge").getCount());
+    }
+
+    /**
+     * After a reset, the calls through a MeteredGraph made before it are
+     * gone and the calls made after it are counted in the same timers.
+     */
+    @Test(timeout = 10000)
+    public void testResetThenMeter() {
+        GraphMetrics metrics = new GraphMetrics();
+        MeteredGraph<String> graph = new MeteredGraph<>(new CsrGraph<String>(true), metrics);
+        CS16Vertex<String>[] vertices = buildGraph(graph);
+        graph.outgoingEdges(vertices[2]).next();
+
+        metrics.reset();
+
+        Map<String, GraphMetrics.Timer> timers = metrics.getTimers();
+        GraphMetrics.Timer outgoing = timers.get("Graph.outgoingEdges");
+        assertEquals(0, timers.get("Graph.insertVertex").getCount());
+        assertEquals(0, outgoing.getCount());
+        assertEquals(0, outgoing.getTotalNanos());
+        assertEquals(0, outgoing.getMaxNanos());
+        assertEquals(0, outgoing.getEdgesScanned());
+        assertEquals(0, outgoing.getPercentileNanos(99));
+
+        graph.insertVertex("E");
+        Iterator<CS16Edge<String>> it = graph.outgoingEdges(vertices[2]);
+        while (it.hasNext()) {
+            it.next();
+        }
+
+        assertSame(outgoing, metrics.getTimers().get("Graph.outgoingEdges"));
+        assertEquals(1, timers.get("Graph.insertVertex").getCount());
+        assertEquals(1, outgoing.getCount());
+        assertEquals(2, outgoing.getEdgesScanned());
+        assertEquals(0, timers.get("Graph.insertEdge").getCount());
+        assertTrue(metrics.toJson().contains("\"Graph.outgoingEdges\": {\"count\": 1"));
+    }
+
+    /**
+     * PageRank records its phases and one time per iteration, and gives the
+     * same ranks as without metrics.
+     */
+    @Test(timeout = 10000)
+    public void testPageRankMetrics() {
+        GraphMetrics metrics = new GraphMetrics();
+        MeteredGraph<String> graph = new MeteredGraph<>(new CsrGraph<String>(true), metrics);
+        CS16Vertex<String>[] vertices = buildGraph(graph);
+
+        MyPageRank<String> pageRank = new MyPageRank<>(true);
+        pageRank.setMetrics(metrics);
+        PageRankResult<String> result = pageRank.run(graph);
+
+        assertEquals(result.getNumIterations(), metrics.getIterations("MyPageRank.iteration").length);
+        for (String phase : new String[] {"indexVertices", "countOutEdges", "findSinks", "buildInLinks", "run"}) {
+            assertEquals(phase, 1, metrics.getTimers().get("MyPageRank." + phase).getCount());
+        }
+        assertEquals(4, metrics.getTimers().get("Graph.numOutgoingEdges").getCount());
+        assertEquals(4, metrics.getTimers().get("Graph.incomingEdges").getEdgesScanned());
+
+        Graph<String> plain = new CsrGraph<>(true);
+        CS16Vertex<String>[] plainVertices = buildGraph(plain);
+        Map<CS16Vertex<String>, Double> ranks = new MyPageRank<String>(true).calcPageRank(plain);
+        for (int v = 0; v < 4; v++) {
+            assertEquals(ranks.get(plainVertices[v]), result.getRanks().get(vertices[v]), 0);
+        }
+    }
+
+    /**
+     * Prim-Jarnik records its phases and one iteration per vertex.
+     */
+    @Test(timeout = 10000)
+    public void testPrimJarnikMetrics() {
+        GraphMetrics metrics = new GraphMetrics();
+        Graph<String> graph = new CsrGraph<>(false);
+        buildGraph(graph);
+
+        MyPrimJarnik<String> prim = new MyPrimJarnik<>();
+        prim.setMetrics(metrics);
+        prim.genMinSpanForest(graph, null);
+        prim.genMinSpanForest(graph, null);
+
+        assertEquals(2, metrics.getTimers().get("MyPrimJarnik.run").getCount());
+        assertEquals(2, metrics.getTimers().get("MyPrimJarnik.initialize").getCount());
+        assertEquals(8, metrics.getTimers().get("MyPrimJarnik.iteration").getCount());
+    }
+
+    /**
+     * The JSON holds every timer and series, with names escaped.
+     */
+    @Test(timeout = 10000)
+    public void testToJson() {
+        GraphMetrics metrics = new GraphMetrics();
+        assertEquals("{\"timers\": {}, \"iterations\": {}}", metrics.toJson());
+
+        metrics.record("a\"b", 5);
+        metrics.timer("a\"b").addEdgesScanned(3);
+        metrics.recordIteration("it", 7);
+        metrics.recordIteration("it", 9);
+
+        assertEquals("{\"timers\": {\"a\\\"b\": {\"count\": 1, \"totalNanos\": 5, \"meanNanos\": 5, \"maxNanos\": 5, "
+                + "\"p50Nanos\": 5, \"p99Nanos\": 5, \"edgesScanned\": 3, \"histogram\": [[7, 1]]}}, "
+                + "\"iterations\": {\"it\": [7, 9]}}", metrics.toJson());
+
+        metrics.reset();
+        assertEquals(0, metrics.getTimers().get("a\"b").getCount());
+        assertEquals("{\"timers\": {\"a\\\"b\": {\"count\": 0, \"totalNanos\": 0, \"meanNanos\": 0, \"maxNanos\": 0, "
+                + "\"p50Nanos\": 0, \"p99Nanos\": 0, \"edgesScanned\": 0, \"histogram\": []}}, "
+                + "\"iterations\": {}}", metrics.toJson());
+        assertEquals(0, metrics.getIterations("it").length);
+    }
+}
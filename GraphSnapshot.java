@@ -0,0 +1,363 @@
+package graph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * This class is a binary snapshot of a graph whose vertex elements are
+ * names, as read by LinksFileLoader. write saves a graph in compressed
+ * sparse row (CSR) form, and open memory-maps a saved snapshot, so a
+ * snapshot is ready to use as soon as it's opened: nothing is parsed, and
+ * no objects are made until a name is asked for or the snapshot is
+ * loaded into a graph.
+ *
+ * The file is a header followed by int arrays and then the name bytes,
+ * all big-endian:
+ *
+ * <pre>
+ * magic, version, directed (0 or 1), |V|, |E|, number of name bytes
+ * row offsets     |V| + 1 ints, vertex v's edges are [offsets[v], offsets[v + 1])
+ * targets         |E| ints
+ * weights         |E| ints
+ * name offsets    |V| + 1 ints into the name bytes
+ * name bytes      the UTF-8 names, back to back
+ * </pre>
+ *
+ * Each edge is stored once, in the row of its first vertex, also for an
+ * undirected graph. A single mapping can hold at most 2GB, so the int
+ * sections are mapped in chunks of 2^CHUNK_SHIFT ints each (as
+ * OffHeapIntArray keeps its ints), and a snapshot can hold as many edges
+ * as an int can count. The name bytes, counted by an int, always fit in
+ * one mapping.
+ */
+public class GraphSnapshot {
+
+    // "CSGS", marks a file as a graph snapshot
+    private static final int MAGIC = 0x43534753;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * 4;
+    // each mapped chunk of an int section holds 2^CHUNK_SHIFT ints (1GB)
+    private static final int CHUNK_SHIFT = 28;
+
+    private final boolean _directed;
+    private final int _numVertices;
+    private final int _numEdges;
+    private final MappedInts _rowOffsets;
+    private final MappedInts _targets;
+    private final MappedInts _weights;
+    private final MappedInts _nameOffsets;
+    private final ByteBuffer _names;
+
+    private GraphSnapshot(boolean directed, int numVertices, int numEdges, MappedInts rowOffsets,
+            MappedInts targets, MappedInts weights, MappedInts nameOffsets, ByteBuffer names) {
+        _directed = directed;
+        _numVertices = numVertices;
+        _numEdges = numEdges;
+        _rowOffsets = rowOffsets;
+        _targets = targets;
+        _weights = weights;
+        _nameOffsets = nameOffsets;
+        _names = names;
+    }
+
+    /**
+     * Writes a snapshot of graph to file. The vertices are numbered 0 to
+     * |V| - 1 in the order the graph's vertex iterator returns them, and
+     * an edge with a null element gets the weight 0.
+     *
+     * <p>
+     * This runs in O(|V| + |E|) time.
+     * </p>
+     *
+     * @param graph the graph to save
+     * @param directed whether graph is directed, which Graph has no
+     *            method to ask
+     * @param file the file to write, replacing it if it exists
+     * @throws IOException if the file can't be written
+     */
+    @SuppressWarnings("unchecked")
+    public static void write(Graph<String> graph, boolean directed, Path file) throws IOException {
+
+        // give every vertex a dense index
+        CS16Vertex<String>[] vertices = new CS16Vertex[Math.max(16, graph.getNumVertices())];
+        int numVertices = 0;
+        int maxNumber = 0;
+
+        Iterator<CS16Vertex<String>> vertexIt = graph.vertices();
+        while(vertexIt.hasNext()){
+            CS16Vertex<String> vertex = vertexIt.next();
+            if(numVertices == vertices.length){
+                vertices = Arrays.copyOf(vertices, 2 * numVertices);
+            }
+            vertices[numVertices++] = vertex;
+            maxNumber = Math.max(maxNumber, vertex.getVertexNumber());
+        }
+
+        int[] indexOf = new int[maxNumber + 1];
+        for(int v = 0; v < numVertices; v++){
+            indexOf[vertices[v].getVertexNumber()] = v;
+        }
+
+        // count each row, then fill the rows in a second pass over the edges
+        int[] rowOffsets = new int[numVertices + 1];
+        int numEdges = 0;
+        Iterator<CS16Edge<String>> edgeIt = graph.edges();
+        while(edgeIt.hasNext()){
+            rowOffsets[indexOf[edgeIt.next().getVertexOne().getVertexNumber()] + 1]++;
+            numEdges++;
+        }
+        for(int v = 0; v < numVertices; v++){
+            rowOffsets[v + 1] += rowOffsets[v];
+        }
+
+        int[] targets = new int[numEdges];
+        int[] weights = new int[numEdges];
+        int[] next = Arrays.copyOf(rowOffsets, numVertices);
+        edgeIt = graph.edges();
+        while(edgeIt.hasNext()){
+            CS16Edge<String> edge = edgeIt.next();
+            int k = next[indexOf[edge.getVertexOne().getVertexNumber()]]++;
+            targets[k] = indexOf[edge.getVertexTwo().getVertexNumber()];
+            weights[k] = edge.element() == null ? 0 : edge.element();
+        }
+
+        byte[][] names = new byte[numVertices][];
+        long numNameBytes = 0;
+        for(int v = 0; v < numVertices; v++){
+            String name = vertices[v].element();
+            names[v] = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+            numNameBytes += names[v].length;
+        }
+        if(numNameBytes > Integer.MAX_VALUE){
+            throw new IOException("The vertex names are too long for a snapshot.");
+        }
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))){
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(directed ? 1 : 0);
+            out.writeInt(numVertices);
+            out.writeInt(numEdges);
+            out.writeInt((int) numNameBytes);
+
+            writeInts(out, rowOffsets, numVertices + 1);
+            writeInts(out, targets, numEdges);
+            writeInts(out, weights, numEdges);
+
+            int offset = 0;
+            out.writeInt(offset);
+            for(int v = 0; v < numVertices; v++){
+                offset += names[v].length;
+                out.writeInt(offset);
+            }
+            for(int v = 0; v < numVertices; v++){
+                out.write(names[v]);
+            }
+        }
+    }
+
+    /**
+     * Memory-maps a snapshot written by write. Only the header is read;
+     * the rest of the file is paged in as it's used.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param file the snapshot to open
+     * @return the snapshot
+     * @throws IOException if the file can't be read or isn't a snapshot
+     */
+    public static GraphSnapshot open(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = channel.size();
+            if(size < HEADER_BYTES){
+                throw new IOException(file + " is not a graph snapshot.");
+            }
+
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).asIntBuffer();
+            if(header.get(0) != MAGIC){
+                throw new IOException(file + " is not a graph snapshot.");
+            }
+            if(header.get(1) != VERSION){
+                throw new IOException(file + " is a version " + header.get(1) + " snapshot, not version " + VERSION + ".");
+            }
+
+            boolean directed = header.get(2) != 0;
+            int numVertices = header.get(3);
+            int numEdges = header.get(4);
+            int numNameBytes = header.get(5);
+
+            long expected = HEADER_BYTES + 4L * (2L * (numVertices + 1) + 2L * numEdges) + numNameBytes;
+            if(numVertices < 0 || numEdges < 0 || numNameBytes < 0 || size != expected){
+                throw new IOException(file + " is truncated or corrupt.");
+            }
+
+            // the mappings stay valid after the channel is closed
+            long position = HEADER_BYTES;
+            MappedInts rowOffsets = new MappedInts(channel, position, numVertices + 1, CHUNK_SHIFT);
+            position += 4L * (numVertices + 1);
+            MappedInts targets = new MappedInts(channel, position, numEdges, CHUNK_SHIFT);
+            position += 4L * numEdges;
+            MappedInts weights = new MappedInts(channel, position, numEdges, CHUNK_SHIFT);
+            position += 4L * numEdges;
+            MappedInts nameOffsets = new MappedInts(channel, position, numVertices + 1, CHUNK_SHIFT);
+            position += 4L * (numVertices + 1);
+            ByteBuffer names = channel.map(FileChannel.MapMode.READ_ONLY, position, numNameBytes);
+
+            return new GraphSnapshot(directed, numVertices, numEdges, rowOffsets, targets, weights, nameOffsets, names);
+        }
+    }
+
+    /**
+     * Returns whether the saved graph was directed.
+     */
+    public boolean isDirected() {
+        return _directed;
+    }
+
+    /**
+     * Returns the number of vertices in the snapshot.
+     */
+    public int getNumVertices() {
+        return _numVertices;
+    }
+
+    /**
+     * Returns the number of edges in the snapshot.
+     */
+    public int getNumEdges() {
+        return _numEdges;
+    }
+
+    /**
+     * Returns the index of the first edge in vertex v's row. The row ends
+     * where the row of v + 1 starts, so rowStart(getNumVertices()) is
+     * getNumEdges().
+     */
+    public int rowStart(int v) {
+        return _rowOffsets.get(v);
+    }
+
+    /**
+     * Returns the index of the second vertex of edge k.
+     */
+    public int target(int k) {
+        return _targets.get(k);
+    }
+
+    /**
+     * Returns the weight of edge k.
+     */
+    public int weight(int k) {
+        return _weights.get(k);
+    }
+
+    /**
+     * Returns the name of vertex v, decoding it from the mapped bytes.
+     */
+    public String name(int v) {
+        int start = _nameOffsets.get(v);
+        byte[] bytes = new byte[_nameOffsets.get(v + 1) - start];
+        for(int k = 0; k < bytes.length; k++){
+            bytes[k] = _names.get(start + k);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Inserts the snapshot's vertices and edges into graph, which should
+     * have the same directedness as the saved graph.
+     *
+     * <p>
+     * This runs in O(|V| + |E|) time, plus the graph's insert times.
+     * </p>
+     *
+     * @param graph the graph to load the snapshot into
+     * @return the inserted vertices, indexed the way the snapshot numbers them
+     */
+    @SuppressWarnings("unchecked")
+    public CS16Vertex<String>[] loadInto(BulkLoadable<String> graph) {
+        graph.ensureCapacity(_numVertices, _numEdges);
+
+        CS16Vertex<String>[] vertices = new CS16Vertex[_numVertices];
+        for(int v = 0; v < _numVertices; v++){
+            vertices[v] = graph.insertVertex(this.name(v));
+        }
+
+        // hand the edges over a batch at a time, so the mapped arrays
+        // never have to be copied onto the heap whole
+        int batchSize = Math.min(_numEdges, 1 << 16);
+        int[] sources = new int[batchSize];
+        int[] targets = new int[batchSize];
+        int[] weights = new int[batchSize];
+        int numBatched = 0;
+
+        for(int v = 0; v < _numVertices; v++){
+            for(int k = _rowOffsets.get(v); k < _rowOffsets.get(v + 1); k++){
+                sources[numBatched] = v;
+                targets[numBatched] = _targets.get(k);
+                weights[numBatched] = _weights.get(k);
+                numBatched++;
+
+                if(numBatched == batchSize){
+                    graph.insertEdges(vertices, sources, targets, weights, numBatched);
+                    numBatched = 0;
+                }
+            }
+        }
+        graph.insertEdges(vertices, sources, targets, weights, numBatched);
+
+        return vertices;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values, int length) throws IOException {
+        for(int k = 0; k < length; k++){
+            out.writeInt(values[k]);
+        }
+    }
+
+    /**
+     * One int section of a snapshot, mapped in chunks of 2^chunkShift ints
+     * so that it can be bigger than a single mapping.
+     */
+    static class MappedInts {
+        private final IntBuffer[] _chunks;
+        private final int _chunkShift;
+        private final int _chunkMask;
+
+        /**
+         * Maps the length ints that start at byte position of the file.
+         * The mappings stay valid after the channel is closed.
+         */
+        MappedInts(FileChannel channel, long position, int length, int chunkShift) throws IOException {
+            long chunkSize = 1L << chunkShift;
+            _chunkShift = chunkShift;
+            _chunkMask = (int) chunkSize - 1;
+            _chunks = new IntBuffer[(int) ((length + chunkSize - 1) >>> chunkShift)];
+            for(int c = 0; c < _chunks.length; c++){
+                long start = (long) c << chunkShift;
+                long size = Math.min(chunkSize, length - start);
+                _chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position + 4 * start, 4 * size).asIntBuffer();
+            }
+        }
+
+        int get(int index) {
+            return _chunks[index >>> _chunkShift].get(index & _chunkMask);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * This class tests writing, mapping and reloading GraphSnapshots.
+ */
+public class GraphSnapshotTest {
+
+    /**
+     * Lists the edges of a graph as "source target weight" strings, sorted.
+     */
+    private static List<String> edgeList(Graph<String> graph) {
+        List<String> edges = new ArrayList<>();
+        Iterator<CS16Edge<String>> it = graph.edges();
+        while (it.hasNext()) {
+            CS16Edge<String> edge = it.next();
+            edges.add(edge.getVertexOne().element() + " " + edge.getVertexTwo().element() + " " + edge.element());
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    /**
+     * The mapped arrays hold the graph in CSR form, and the names decode
+     * back to the vertex elements.
+     */
+    @Test(timeout = 10000)
+    public void testMappedArrays() throws IOException {
+        Graph<String> graph = new CsrGraph<>(true);
+        CS16Vertex<String> A = graph.insertVertex("A");
+        CS16Vertex<String> B = graph.insertVertex("Bé");
+        CS16Vertex<String> C = graph.insertVertex("C");
+        graph.insertEdge(A, B, 4);
+        graph.insertEdge(A, C, 7);
+        graph.insertEdge(C, A, 2);
+
+        Path file = Files.createTempFile("graph", ".snapshot");
+        try {
+            GraphSnapshot.write(graph, true, file);
+            GraphSnapshot snapshot = GraphSnapshot.open(file);
+
+            assertTrue(snapshot.isDirected());
+            assertEquals(3, snapshot.getNumVertices());
+            assertEquals(3, snapshot.getNumEdges());
+            assertEquals("Bé", snapshot.name(1));
+
+            // A's row holds its two edges, B's is empty and C's holds one
+            assertEquals(0, snapshot.rowStart(0));
+            assertEquals(2, snapshot.rowStart(1));
+            assertEquals(2, snapshot.rowStart(2));
+            assertEquals(3, snapshot.rowStart(3));
+            assertEquals(0, snapshot.target(2));
+            assertEquals(2, snapshot.weight(2));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * An int section mapped in many small chunks, with a short last one,
+     * reads back every int, as the sections of a snapshot too big for one
+     * mapping do with full-size chunks.
+     */
+    @Test(timeout = 10000)
+    public void testChunkedSection() throws IOException {
+        Path file = Files.createTempFile("ints", ".bin");
+        try {
+            // one int of padding in front, so the section doesn't start at 0
+            ByteBuffer bytes = ByteBuffer.allocate(4 * 1001);
+            bytes.putInt(-1);
+            for (int k = 0; k < 1000; k++) {
+                bytes.putInt(k * 3);
+            }
+            Files.write(file, bytes.array());
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                GraphSnapshot.MappedInts ints = new GraphSnapshot.MappedInts(channel, 4, 1000, 4);
+                for (int k = 0; k < 1000; k++) {
+                    assertEquals(k * 3, ints.get(k));
+                }
+                new GraphSnapshot.MappedInts(channel, 4, 0, 4);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * A sample links file survives a round trip through a snapshot, into
+     * either kind of bulk-loadable graph.
+     */
+    @Test(timeout = 10000)
+    public void testRoundTrip() throws IOException {
+        Graph<String> graph = new CsrGraph<>(false);
+        new LinksFileLoader().load(Paths.get("olympics_links.txt"), graph);
+
+        Path file = Files.createTempFile("graph", ".snapshot");
+        try {
+            GraphSnapshot.write(graph, false, file);
+            GraphSnapshot snapshot = GraphSnapshot.open(file);
+            assertFalse(snapshot.isDirected());
+
+            CsrGraph<String> csr = new CsrGraph<>(false);
+            CS16Vertex<String>[] vertices = snapshot.loadInto(csr);
+            assertEquals(graph.getNumVertices(), vertices.length);
+            assertEquals(edgeList(graph), edgeList(csr));
+
+            AdjacencyMatrixGraph<String> matrix = AdjacencyMatrixGraph.growable(false);
+            snapshot.loadInto(matrix);
+            assertEquals(edgeList(graph), edgeList(matrix));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Files that aren't whole snapshots are rejected when they're opened.
+     */
+    @Test(expected = IOException.class, timeout = 10000)
+    public void testRejectsOtherFiles() throws IOException {
+        GraphSnapshot.open(Paths.get("olympics_links.txt"));
+    }
+}
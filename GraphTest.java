@@ -815,6 +815,485 @@ public class GraphTest {
         assertFalse(_graph.areAdjacent(newA,newB)); // this is false for directed graph
     }
 
+    /**
+     * Loads edges with insertEdges and checks that they end up in the
+     * graph just as if they had been inserted one at a time.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testBulkInsertEdges() {
+        BulkLoadable<String> graph = (BulkLoadable<String>) _dirGraph;
+        graph.ensureCapacity(3, 4);
+
+        CS16Vertex<String>[] vertices = new CS16Vertex[3];
+        vertices[0] = graph.insertVertex("A");
+        vertices[1] = graph.insertVertex("B");
+        vertices[2] = graph.insertVertex("C");
+
+        int[] sources = {0, 1, 2, 2, -1};
+        int[] targets = {1, 2, 0, 1, -1};
+        int[] weights = {5, 6, 7, 8, -1};
+        graph.insertEdges(vertices, sources, targets, weights, 4);
+
+        int numEdges = 0;
+        Iterator<CS16Edge<String>> it = graph.edges();
+        while (it.hasNext()) {
+            it.next();
+            numEdges++;
+        }
+        assertThat(numEdges, is(4));
+
+        assertThat(graph.connectingEdge(vertices[0], vertices[1]).element(), is(5));
+        assertThat(graph.connectingEdge(vertices[2], vertices[1]).element(), is(8));
+        assertFalse(graph.areAdjacent(vertices[1], vertices[0]));
+        assertThat(graph.numOutgoingEdges(vertices[2]), is(2));
+
+        // and the edges can be used like any other
+        graph.removeVertex(vertices[2]);
+        assertFalse(graph.areAdjacent(vertices[0], vertices[2]));
+        assertTrue(graph.areAdjacent(vertices[0], vertices[1]));
+    }
+
+    /**
+     * A batch with a null vertex in the middle of it throws, and leaves the
+     * graph without any of its edges, even the ones before the bad one.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testBulkInsertEdgesFailedBatch() {
+        BulkLoadable<String> graph = (BulkLoadable<String>) _dirGraph;
+
+        CS16Vertex<String>[] vertices = new CS16Vertex[3];
+        vertices[0] = graph.insertVertex("A");
+        vertices[1] = graph.insertVertex("B");
+
+        // vertices[2] is null
+        int[] sources = {0, 2, 1};
+        int[] targets = {1, 0, 0};
+        int[] weights = {5, 6, 7};
+        try {
+            graph.insertEdges(vertices, sources, targets, weights, 3);
+            fail("insertEdges took a null vertex");
+        } catch (InvalidVertexException e) {
+            // expected
+        }
+
+        assertFalse(graph.edges().hasNext());
+        assertThat(graph.numOutgoingEdges(vertices[0]), is(0));
+        assertFalse(graph.areAdjacent(vertices[0], vertices[1]));
+        assertFalse(graph.outgoingEdges(vertices[0]).hasNext());
+
+        // the graph still takes a good batch afterwards
+        graph.insertEdges(vertices, sources, targets, weights, 1);
+        assertThat(graph.numOutgoingEdges(vertices[0]), is(1));
+        assertTrue(graph.areAdjacent(vertices[0], vertices[1]));
+        assertThat(graph.connectingEdge(vertices[0], vertices[1]).element(), is(5));
+    }
+
+    /**
+     * Fills the graph with MAX_VERTICES vertices, the most a fixed
+     * adjacency matrix holds, and checks that every insert is accepted
+     * and that edges between them still work.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testFillToMaxVertices() {
+        for (Graph<String> graph : Arrays.asList(_graph, _dirGraph)) {
+            CS16Vertex<String>[] vertices = new CS16Vertex[MAX_VERTICES];
+            for (int v = 0; v < MAX_VERTICES; v++) {
+                vertices[v] = graph.insertVertex("V" + v);
+            }
+            assertThat(graph.getNumVertices(), is(MAX_VERTICES));
+
+            CS16Edge<String> edge = graph.insertEdge(vertices[0], vertices[MAX_VERTICES - 2], 1);
+            assertSame(edge, graph.connectingEdge(vertices[0], vertices[MAX_VERTICES - 2]));
+            assertFalse(graph.outgoingEdges(vertices[MAX_VERTICES - 1]).hasNext());
+
+            graph.removeVertex(vertices[MAX_VERTICES - 1]);
+            assertThat(graph.getNumVertices(), is(MAX_VERTICES - 1));
+        }
+    }
+
+    /**
+     * Returns whether the graphs under test are AdjacencyMatrixGraphs, for
+     * the tests of the methods only that graph has. Those tests run once,
+     * with the AdjacencyMatrixGraph parameter.
+     */
+    private boolean isMatrixGraph() {
+        return _graph instanceof AdjacencyMatrixGraph;
+    }
+
+    /**
+     * Returns how many edges an iterator holds.
+     */
+    private static int count(Iterator<CS16Edge<String>> it) {
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Grows a growable matrix well past MAX_VERTICES, with edges inserted
+     * before and during the growth, and checks that every vertex keeps its
+     * number and every edge stays where it was, directed and undirected.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testGrowablePastMaxVertices() {
+        if (!isMatrixGraph()) {
+            return;
+        }
+        int n = 3 * MAX_VERTICES;
+        for (boolean directed : new boolean[] {false, true}) {
+            AdjacencyMatrixGraph<String> graph = AdjacencyMatrixGraph.growable(directed);
+            CS16Vertex<String>[] vertices = new CS16Vertex[n];
+            int[] numbers = new int[n];
+            CS16Edge<String>[] edges = new CS16Edge[n];
+
+            for (int v = 0; v < n; v++) {
+                vertices[v] = graph.insertVertex("V" + v);
+                numbers[v] = vertices[v].getVertexNumber();
+
+                // every vertex links to an older one, so the early edges go
+                // through every resize
+                if (v > 0) {
+                    edges[v] = graph.insertEdge(vertices[v], vertices[v / 2], v);
+                }
+            }
+            assertThat(graph.getNumVertices(), is(n));
+            assertThat(count(graph.edges()), is(n - 1));
+
+            for (int v = 0; v < n; v++) {
+                assertThat(vertices[v].getVertexNumber(), is(numbers[v]));
+            }
+            for (int v = 1; v < n; v++) {
+                CS16Vertex<String> target = vertices[v / 2];
+                assertSame(edges[v], graph.connectingEdge(vertices[v], target));
+                assertTrue(graph.areAdjacent(vertices[v], target));
+                assertThat(graph.areAdjacent(target, vertices[v]), is(!directed));
+            }
+
+            // vertex 1 links to vertex 0, and vertices 2 and 3 link to it
+            assertThat(count(graph.incomingEdges(vertices[1])), is(directed ? 2 : 3));
+            assertThat(count(graph.outgoingEdges(vertices[1])), is(directed ? 1 : 3));
+        }
+    }
+
+    /**
+     * A removed vertex's number is handed to the next vertex inserted, and
+     * the new vertex starts without any of the old one's edges.
+     */
+    @Test(timeout = 10000)
+    public void testRemovedNumberIsReused() {
+        if (!isMatrixGraph()) {
+            return;
+        }
+        for (Graph<String> graph : Arrays.asList(_graph, _dirGraph)) {
+            CS16Vertex<String> A = graph.insertVertex("A");
+            CS16Vertex<String> B = graph.insertVertex("B");
+            CS16Vertex<String> C = graph.insertVertex("C");
+            graph.insertEdge(A, B, 1);
+            graph.insertEdge(B, C, 2);
+            graph.insertEdge(B, B, 3);
+
+            int number = B.getVertexNumber();
+            graph.removeVertex(B);
+            CS16Vertex<String> D = graph.insertVertex("D");
+
+            assertThat(D.getVertexNumber(), is(number));
+            assertFalse(graph.areAdjacent(A, D));
+            assertFalse(graph.areAdjacent(D, C));
+            assertFalse(graph.areAdjacent(D, D));
+            assertThat(count(graph.incomingEdges(D)), is(0));
+            assertThat(count(graph.outgoingEdges(D)), is(0));
+
+            // once the free numbers run out, new ones are handed out again
+            CS16Vertex<String> E = graph.insertVertex("E");
+            assertThat(E.getVertexNumber(), is(C.getVertexNumber() + 1));
+        }
+    }
+
+    /**
+     * compact renumbers the vertices 1 to |V| in their old order, and
+     * keeps every edge, adjacency and edge set, on a fixed and a growable
+     * matrix, directed and undirected.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testCompact() {
+        if (!isMatrixGraph()) {
+            return;
+        }
+        List<AdjacencyMatrixGraph<String>> graphs = Arrays.asList(
+                (AdjacencyMatrixGraph<String>) _graph, (AdjacencyMatrixGraph<String>) _dirGraph,
+                AdjacencyMatrixGraph.<String>growable(false), AdjacencyMatrixGraph.<String>growable(true));
+        for (AdjacencyMatrixGraph<String> graph : graphs) {
+            int n = 40;
+            CS16Vertex<String>[] vertices = new CS16Vertex[n];
+            for (int v = 0; v < n; v++) {
+                vertices[v] = graph.insertVertex("V" + v);
+            }
+            Random random = new Random(12);
+            for (int k = 0; k < 80; k++) {
+                graph.insertEdge(vertices[random.nextInt(n)], vertices[random.nextInt(n)], k);
+            }
+
+            // removing every third vertex leaves holes in the numbering
+            List<CS16Vertex<String>> live = new ArrayList<>();
+            for (int v = 0; v < n; v++) {
+                if (v % 3 == 1) {
+                    graph.removeVertex(vertices[v]);
+                } else {
+                    live.add(vertices[v]);
+                }
+            }
+
+            int m = live.size();
+            CS16Edge<String>[][] before = new CS16Edge[m][m];
+            int[] degrees = new int[m];
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < m; j++) {
+                    if (graph.areAdjacent(live.get(i), live.get(j))) {
+                        before[i][j] = graph.connectingEdge(live.get(i), live.get(j));
+                    }
+                }
+                degrees[i] = count(graph.incomingEdges(live.get(i)));
+            }
+            int numEdges = count(graph.edges());
+
+            graph.compact();
+
+            for (int i = 0; i < m; i++) {
+                assertThat(live.get(i).getVertexNumber(), is(i + 1));
+            }
+            assertThat(graph.getNumVertices(), is(m));
+            assertThat(count(graph.edges()), is(numEdges));
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < m; j++) {
+                    assertThat(graph.areAdjacent(live.get(i), live.get(j)), is(before[i][j] != null));
+                    if (before[i][j] != null) {
+                        assertSame(before[i][j], graph.connectingEdge(live.get(i), live.get(j)));
+                    }
+                }
+                assertThat(count(graph.incomingEdges(live.get(i))), is(degrees[i]));
+            }
+
+            // the free numbers are gone, so the next vertex comes after the rest
+            assertThat(graph.insertVertex("new").getVertexNumber(), is(m + 1));
+
+            // the numbers the moved vertices had are left without any edges
+            List<CS16Vertex<String>> added = new ArrayList<>();
+            for (int v = m + 1; v < n; v++) {
+                added.add(graph.insertVertex("new" + v));
+            }
+            for (CS16Vertex<String> vertex : added) {
+                assertThat(count(graph.outgoingEdges(vertex)), is(0));
+                for (CS16Vertex<String> other : live) {
+                    assertFalse(graph.areAdjacent(vertex, other));
+                    assertFalse(graph.areAdjacent(other, vertex));
+                }
+            }
+        }
+    }
+
+    /**
+     * compact works on a fixed matrix holding MAX_VERTICES vertices, whose
+     * last vertex number has no row in the matrix.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testCompactFullMatrix() {
+        if (!isMatrixGraph()) {
+            return;
+        }
+        AdjacencyMatrixGraph<String> graph = (AdjacencyMatrixGraph<String>) _dirGraph;
+        CS16Vertex<String>[] vertices = new CS16Vertex[MAX_VERTICES];
+        for (int v = 0; v < MAX_VERTICES; v++) {
+            vertices[v] = graph.insertVertex("V" + v);
+        }
+        CS16Edge<String> edge = graph.insertEdge(vertices[MAX_VERTICES - 2], vertices[0], 1);
+        graph.removeVertex(vertices[1]);
+
+        graph.compact();
+
+        assertThat(vertices[MAX_VERTICES - 1].getVertexNumber(), is(MAX_VERTICES - 1));
+        assertThat(vertices[MAX_VERTICES - 2].getVertexNumber(), is(MAX_VERTICES - 2));
+        assertSame(edge, graph.connectingEdge(vertices[MAX_VERTICES - 2], vertices[0]));
+        assertThat(count(graph.edges()), is(1));
+    }
+
+    /**
+     * Removes a batch of vertices that share an edge, one with a self-loop,
+     * a duplicate and a vertex that's already gone, and checks that exactly
+     * their edges leave the graph, directed and undirected (where both ends
+     * of an edge share one edge set).
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testRemoveVertices() {
+        if (!isMatrixGraph()) {
+            return;
+        }
+        for (Graph<String> g : Arrays.asList(_graph, _dirGraph)) {
+            AdjacencyMatrixGraph<String> graph = (AdjacencyMatrixGraph<String>) g;
+            CS16Vertex<String> A = graph.insertVertex("A");
+            CS16Vertex<String> B = graph.insertVertex("B");
+            CS16Vertex<String> C = graph.insertVertex("C");
+            CS16Vertex<String> D = graph.insertVertex("D");
+            CS16Vertex<String> E = graph.insertVertex("E");
+            CS16Vertex<String> gone = graph.insertVertex("gone");
+            graph.removeVertex(gone);
+
+            graph.insertEdge(A, B, 1);
+            graph.insertEdge(B, C, 2); // between two removed vertices
+            graph.insertEdge(C, C, 3); // a self-loop on a removed vertex
+            graph.insertEdge(C, D, 4);
+            CS16Edge<String> de = graph.insertEdge(D, E, 5);
+            CS16Edge<String> ea = graph.insertEdge(E, A, 6);
+
+            graph.removeVertices(Arrays.asList(B, C, B, gone));
+
+            assertThat(graph.getNumVertices(), is(3));
+            List<CS16Edge<String>> edges = new ArrayList<>();
+            Iterator<CS16Edge<String>> it = graph.edges();
+            while (it.hasNext()) {
+                edges.add(it.next());
+            }
+            assertThat(edges.size(), is(2));
+            assertTrue(edges.contains(de));
+            assertTrue(edges.contains(ea));
+
+            assertFalse(graph.areAdjacent(A, B));
+            assertFalse(graph.areAdjacent(C, D));
+            assertThat(count(graph.incomingEdges(D)), is(g == _dirGraph ? 0 : 1));
+            assertThat(count(graph.outgoingEdges(A)), is(g == _dirGraph ? 0 : 1));
+            assertThat(count(graph.incomingEdges(A)), is(1));
+
+            // the removed numbers are free again, and come back without edges
+            CS16Vertex<String> F = graph.insertVertex("F");
+            CS16Vertex<String> G = graph.insertVertex("G");
+            CS16Vertex<String> H = graph.insertVertex("H");
+            assertTrue(Arrays.asList(B.getVertexNumber(), C.getVertexNumber(), gone.getVertexNumber())
+                    .containsAll(Arrays.asList(F.getVertexNumber(), G.getVertexNumber(), H.getVertexNumber())));
+            assertFalse(graph.areAdjacent(F, G) || graph.areAdjacent(G, G) || graph.areAdjacent(A, F));
+            assertThat(graph.getNumVertices(), is(6));
+        }
+    }
+
+    /**
+     * A null anywhere in the batch throws before any vertex is removed.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testRemoveVerticesNull() {
+        if (!isMatrixGraph()) {
+            return;
+        }
+        AdjacencyMatrixGraph<String> graph = (AdjacencyMatrixGraph<String>) _dirGraph;
+        CS16Vertex<String> A = graph.insertVertex("A");
+        CS16Vertex<String> B = graph.insertVertex("B");
+        graph.insertEdge(A, B, 1);
+
+        try {
+            graph.removeVertices(Arrays.asList(A, null));
+            fail("removeVertices took a null vertex");
+        } catch (InvalidVertexException e) {
+            // expected
+        }
+        assertThat(graph.getNumVertices(), is(2));
+        assertTrue(graph.areAdjacent(A, B));
+    }
+
+    /**
+     * getNumVertices counts the vertices in the graph, however they were
+     * removed, and doesn't count a vertex removed twice twice.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testGetNumVerticesAfterRemovals() {
+        if (!isMatrixGraph()) {
+            return;
+        }
+        AdjacencyMatrixGraph<String> graph = (AdjacencyMatrixGraph<String>) _graph;
+        CS16Vertex<String>[] vertices = new CS16Vertex[MAX_VERTICES];
+        for (int v = 0; v < MAX_VERTICES; v++) {
+            vertices[v] = graph.insertVertex("V" + v);
+        }
+
+        graph.removeVertex(vertices[3]);
+        graph.removeVertex(vertices[3]);
+        assertThat(graph.getNumVertices(), is(MAX_VERTICES - 1));
+
+        // the last vertex of a full fixed matrix can be removed in a batch too
+        graph.removeVertices(Arrays.asList(vertices[0], vertices[3], vertices[MAX_VERTICES - 1]));
+        assertThat(graph.getNumVertices(), is(MAX_VERTICES - 3));
+
+        graph.insertVertex("new");
+        assertThat(graph.getNumVertices(), is(MAX_VERTICES - 2));
+    }
+
+    /**
+     * Clears a fixed and a growable matrix holding edges, self-loops and
+     * free numbers, then fills them again, and checks that nothing of the
+     * old graph is left: no vertices, edges, matrix cells or edge sets.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testClearThenReinsert() {
+        if (!isMatrixGraph()) {
+            return;
+        }
+        List<AdjacencyMatrixGraph<String>> graphs = Arrays.asList(
+                (AdjacencyMatrixGraph<String>) _graph, (AdjacencyMatrixGraph<String>) _dirGraph,
+                AdjacencyMatrixGraph.<String>growable(false), AdjacencyMatrixGraph.<String>growable(true));
+        for (AdjacencyMatrixGraph<String> graph : graphs) {
+            // a growable graph is grown past MAX_VERTICES before it's cleared
+            int n = graph == _graph || graph == _dirGraph ? MAX_VERTICES : 2 * MAX_VERTICES;
+            CS16Vertex<String>[] vertices = new CS16Vertex[n];
+            for (int v = 0; v < n; v++) {
+                vertices[v] = graph.insertVertex("V" + v);
+            }
+            // the last vertex of a full fixed matrix has no row, so it gets no edges
+            Random random = new Random(15);
+            for (int k = 0; k < 3 * n; k++) {
+                graph.insertEdge(vertices[random.nextInt(n - 1)], vertices[random.nextInt(n - 1)], k);
+            }
+            for (int v = 0; v < n - 1; v += 5) {
+                graph.insertEdge(vertices[v], vertices[v], -v);
+            }
+            graph.removeVertex(vertices[n / 2]);
+
+            graph.clear();
+
+            assertThat(graph.getNumVertices(), is(0));
+            assertFalse(graph.vertices().hasNext());
+            assertFalse(graph.edges().hasNext());
+
+            // the numbers start over, with no free numbers left from before
+            for (int v = 0; v < n; v++) {
+                vertices[v] = graph.insertVertex("W" + v);
+                assertThat(vertices[v].getVertexNumber(), is(v + 1));
+            }
+            for (int i = 0; i < n - 1; i++) {
+                assertThat(count(graph.incomingEdges(vertices[i])), is(0));
+                assertThat(count(graph.outgoingEdges(vertices[i])), is(0));
+                for (int j = 0; j < n - 1; j++) {
+                    assertFalse(graph.areAdjacent(vertices[i], vertices[j]));
+                }
+            }
+
+            CS16Edge<String> edge = graph.insertEdge(vertices[0], vertices[1], 1);
+            graph.insertEdge(vertices[2], vertices[2], 2);
+            assertThat(count(graph.edges()), is(2));
+            assertSame(edge, graph.connectingEdge(vertices[0], vertices[1]));
+            assertThat(count(graph.incomingEdges(vertices[1])), is(1));
+            assertThat(count(graph.incomingEdges(vertices[2])), is(1));
+        }
+    }
+
     /*
      * List of graphs for testing!
      */
@@ -822,6 +1301,7 @@ public class GraphTest {
     public static Collection<String> graphs() {
         List<String> names = new ArrayList<>();
         names.add("graph.AdjacencyMatrixGraph");
+        names.add("graph.CsrGraph");
         return names;
     }
     
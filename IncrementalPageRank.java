@@ -0,0 +1,424 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+import support.graph.PageRank;
+
+/**
+ * A PageRank that keeps its ranks up to date as edges are inserted into
+ * and removed from the graph, without starting over from 1/N.
+ *
+ * calcPageRank ranks the whole graph like MyPageRank with sinks
+ * redistributed (the graph is never changed), then keeps the ranks x
+ * along with their residual: for every vertex v,
+ *
+ * <pre>
+ * r(v) = (1 - d) / N + d * (sum of x(u) / out(u) over the links u to v)
+ *        + d * (sum of x(s) over the sinks s) / N - x(v)
+ * </pre>
+ *
+ * which is 0 everywhere once the ranks are exact. The outgoing links are
+ * copied into an int array per vertex, which edgeInserted and
+ * edgeRemoved keep in step with the graph. An edge inserted or removed at
+ * u only changes what u passes along its outgoing edges, so they only
+ * touch the residuals of u's neighbors. update then pushes residual until every vertex is within the
+ * tolerance: pushing v adds r(v) to x(v) and passes d * r(v) / out(v) on
+ * to each vertex v links to. Only vertices whose residual got too big are
+ * ever visited, and only until the residual over all the vertices is
+ * within the tolerance (in the configured norm), so a small change
+ * settles in a small fraction of the time of a full run.
+ *
+ * The part of the residual that reaches every vertex equally (from sinks,
+ * which link to every vertex) is kept as one number c instead. Since the
+ * teleport term is uniform too, pushing c to every vertex until it settles
+ * would add about (c * N / (1 - d)) times the ranks themselves to the
+ * ranks, so once c matters most of it is usually cleared in one O(|V|)
+ * pass by scaling the ranks and residuals by 1 + c * N / (1 - d).
+ *
+ * Vertices can't be added or removed incrementally, since that changes N
+ * for every vertex: calcPageRank has to be run again.
+ *
+ */
+public class IncrementalPageRank<V> implements PageRank<V> {
+	private final PageRankConfig _config;
+	private final double _dampingFactor;
+	private Graph<V> _g;
+	private CS16Vertex<V>[] _vertices;
+	private int _numVertices;
+	// index of every vertex number, or -1
+	private int[] _indexOf;
+	// the links out of vertex v are _outLinks[v][0 .. _outDegree[v])
+	private int[][] _outLinks;
+	private int[] _outDegree;
+	private double[] _rank;
+	private double[] _residual;
+	// residual every vertex has on top of its own
+	private double _uniformResidual;
+	// sum of the absolute values of _residual
+	private double _residualMass;
+	// a vertex is queued to be pushed once its residual is bigger than this
+	private double _threshold;
+	// vertices waiting to be pushed, as a ring buffer
+	private int[] _queue;
+	private int _queueHead;
+	private int _queueSize;
+	private boolean[] _queued;
+
+	/**
+	 * Constructor for an incremental PageRank with the default settings.
+	 */
+	public IncrementalPageRank() {
+		this(new PageRankConfig());
+	}
+
+	/**
+	 * Constructor for an incremental PageRank with custom settings. The
+	 * tolerance bounds the residual left once update is done, in the
+	 * configured norm.
+	 *
+	 * @param config the damping factor, tolerance, iteration cap and norm
+	 */
+	public IncrementalPageRank(PageRankConfig config) {
+		if (config == null) {
+			throw new IllegalArgumentException("Config is null.");
+		}
+		_config = config;
+		_dampingFactor = config.getDampingFactor();
+	}
+
+	/**
+	 * Ranks the whole graph from scratch and starts tracking it.
+	 *
+	 * <p>
+	 * This runs in the time of MyPageRank, plus O(|V| + |E|).
+	 * </p>
+	 *
+	 * @return A Map of every Vertex to its corresponding rank
+	 */
+	@Override
+	public Map<CS16Vertex<V>, Double> calcPageRank(Graph<V> g) {
+		Map<CS16Vertex<V>, Double> ranks = new MyPageRank<V>(_config, true).calcPageRank(g);
+		_g = g;
+		this.indexVertices(ranks);
+		this.computeResiduals();
+		this.update();
+		return this.getRanks();
+	}
+
+	/**
+	 * Records that an edge from source to target has been inserted into
+	 * the graph. Call it for every insertion, before update.
+	 *
+	 * <p>
+	 * This runs in O(out-degree of source) time.
+	 * </p>
+	 */
+	public void edgeInserted(CS16Vertex<V> source, CS16Vertex<V> target) {
+		int u = this.indexOf(source);
+		int w = this.indexOf(target);
+		int oldDegree = _outDegree[u];
+		if (oldDegree == _outLinks[u].length) {
+			_outLinks[u] = Arrays.copyOf(_outLinks[u], Math.max(4, 2 * oldDegree));
+		}
+		_outLinks[u][oldDegree] = w;
+		_outDegree[u]++;
+
+		double mass = _dampingFactor * _rank[u];
+		if (oldDegree == 0) {
+			// u was a sink, whose rank went to every vertex
+			_uniformResidual -= mass / _numVertices;
+			this.addResidual(w, mass);
+		} else {
+			this.shiftShares(u, mass / _outDegree[u] - mass / oldDegree);
+			this.addResidual(w, mass / oldDegree);
+		}
+	}
+
+	/**
+	 * Records that an edge from source to target has been removed from the
+	 * graph. Call it for every removal, before update.
+	 *
+	 * <p>
+	 * This runs in O(out-degree of source) time.
+	 * </p>
+	 */
+	public void edgeRemoved(CS16Vertex<V> source, CS16Vertex<V> target) {
+		int u = this.indexOf(source);
+		int w = this.indexOf(target);
+		int oldDegree = _outDegree[u];
+		int[] links = _outLinks[u];
+		int k = 0;
+		while (k < oldDegree && links[k] != w) {
+			k++;
+		}
+		if (k == oldDegree) {
+			throw new IllegalArgumentException("There is no edge from source to target.");
+		}
+		links[k] = links[oldDegree - 1];
+		_outDegree[u]--;
+
+		double mass = _dampingFactor * _rank[u];
+		if (_outDegree[u] == 0) {
+			// u is a sink now, so its rank goes to every vertex
+			_uniformResidual += mass / _numVertices;
+		} else {
+			this.shiftShares(u, mass / _outDegree[u] - mass / oldDegree);
+		}
+		this.addResidual(w, -mass / oldDegree);
+	}
+
+	/**
+	 * Pushes residual until no vertex has more than the tolerance allows.
+	 *
+	 * <p>
+	 * This runs in time proportional to the out-degrees of the vertices
+	 * pushed, plus O(|V|) each time the residual shared by every vertex has
+	 * to be spread.
+	 * </p>
+	 *
+	 * @return how many vertices were pushed
+	 */
+	public long update() {
+		if (_g == null) {
+			throw new IllegalStateException("calcPageRank has to be run first.");
+		}
+
+		long numPushes = 0;
+		while (!this.withinTolerance()) {
+			if (_queueSize == 0) {
+				// no vertex is over the threshold, so the shared residual
+				// is what's left (once rounding errors are cleared out)
+				this.sumResidualMass();
+				this.clearUniformResidual();
+				continue;
+			}
+
+			int v = _queue[_queueHead];
+			_queueHead = (_queueHead + 1) % _queue.length;
+			_queueSize--;
+			_queued[v] = false;
+
+			this.push(v);
+			numPushes++;
+		}
+		return numPushes;
+	}
+
+	/**
+	 * Returns the current rank of a vertex, as of the last update.
+	 */
+	public double getRank(CS16Vertex<V> vertex) {
+		return _rank[this.indexOf(vertex)];
+	}
+
+	/**
+	 * Returns a Map of every Vertex to its current rank, as of the last
+	 * update.
+	 */
+	public Map<CS16Vertex<V>, Double> getRanks() {
+		Map<CS16Vertex<V>, Double> ranks = new HashMap<>(2 * _numVertices);
+		for (int v = 0; v < _numVertices; v++) {
+			ranks.put(_vertices[v], _rank[v]);
+		}
+		return ranks;
+	}
+
+	/**
+	 * Method used to give every vertex a dense index and copy in its
+	 * rank and out-degree.
+	 */
+	@SuppressWarnings("unchecked")
+	private void indexVertices(Map<CS16Vertex<V>, Double> ranks) {
+		_numVertices = ranks.size();
+		_vertices = new CS16Vertex[_numVertices];
+		int maxNumber = 0;
+
+		Iterator<CS16Vertex<V>> it = _g.vertices();
+		for (int v = 0; v < _numVertices; v++) {
+			_vertices[v] = it.next();
+			maxNumber = Math.max(maxNumber, _vertices[v].getVertexNumber());
+		}
+
+		_indexOf = new int[maxNumber + 1];
+		Arrays.fill(_indexOf, -1);
+		_rank = new double[_numVertices];
+		for (int v = 0; v < _numVertices; v++) {
+			_indexOf[_vertices[v].getVertexNumber()] = v;
+			_rank[v] = ranks.get(_vertices[v]);
+		}
+
+		_outLinks = new int[_numVertices][];
+		_outDegree = new int[_numVertices];
+		for (int v = 0; v < _numVertices; v++) {
+			int[] links = new int[_g.numOutgoingEdges(_vertices[v])];
+			Iterator<CS16Edge<V>> edges = _g.outgoingEdges(_vertices[v]);
+			while (edges.hasNext()) {
+				CS16Vertex<V> w = _g.opposite(_vertices[v], edges.next());
+				links[_outDegree[v]++] = this.indexOf(w);
+			}
+			_outLinks[v] = links;
+		}
+
+		_queue = new int[Math.max(1, _numVertices)];
+		_queued = new boolean[_numVertices];
+		_queueHead = 0;
+		_queueSize = 0;
+
+		// with every vertex within the threshold, the residuals can only
+		// add up to half the tolerance, leaving the other half for the
+		// shared residual
+		_threshold = _config.getNorm() == PageRankConfig.Norm.L1
+				? _config.getTolerance() / (2.0 * Math.max(1, _numVertices)) : _config.getTolerance() / 2;
+	}
+
+	/**
+	 * Method used to work out the residual of every vertex from scratch,
+	 * by passing every rank along the outgoing edges.
+	 */
+	private void computeResiduals() {
+		_residual = new double[_numVertices];
+		_uniformResidual = 0;
+		_residualMass = 0;
+
+		// what the sinks pass to every vertex is part of the exact ranks,
+		// not residual left over, so it goes straight into every vertex
+		double teleport = (1 - _dampingFactor) / _numVertices;
+		for (int v = 0; v < _numVertices; v++) {
+			if (_outDegree[v] == 0) {
+				teleport += _dampingFactor * _rank[v] / _numVertices;
+			}
+		}
+
+		for (int v = 0; v < _numVertices; v++) {
+			this.addResidual(v, teleport - _rank[v]);
+			if (_outDegree[v] > 0) {
+				this.shiftShares(v, _dampingFactor * _rank[v] / _outDegree[v]);
+			}
+		}
+	}
+
+	/**
+	 * Method used to check whether the residual over all the vertices is
+	 * within the tolerance, in the configured norm.
+	 */
+	private boolean withinTolerance() {
+		if (_config.getNorm() == PageRankConfig.Norm.L1) {
+			return _residualMass + Math.abs(_uniformResidual) * _numVertices <= _config.getTolerance();
+		}
+		return _queueSize == 0 && Math.abs(_uniformResidual) <= _threshold;
+	}
+
+	/**
+	 * Method used to sum _residualMass from scratch, since adding up the
+	 * changes to it piles up rounding errors.
+	 */
+	private void sumResidualMass() {
+		_residualMass = 0;
+		for (int v = 0; v < _numVertices; v++) {
+			_residualMass += Math.abs(_residual[v]);
+		}
+	}
+
+	/**
+	 * Method used to fold most of the residual shared by every vertex into
+	 * the ranks. Scaling the ranks by 1 + a changes the full residual of
+	 * every vertex, r(v) + c, by a * (r(v) + c - (1 - d) / N), so with
+	 * a = c * N / (1 - d) the residuals scale by 1 + a and the shared one
+	 * drops to a * c. That only shrinks it when a is small, and with no
+	 * teleport (d = 1) it doesn't work at all, so otherwise c is added to
+	 * the residual of every vertex to be pushed like the rest.
+	 */
+	private void clearUniformResidual() {
+		double uniform = _uniformResidual;
+		double a = _dampingFactor == 1 ? Double.POSITIVE_INFINITY : uniform * _numVertices / (1 - _dampingFactor);
+
+		if (Math.abs(a) > 0.5) {
+			_uniformResidual = 0;
+			for (int v = 0; v < _numVertices; v++) {
+				this.addResidual(v, uniform);
+			}
+			return;
+		}
+
+		double scale = 1 + a;
+		_uniformResidual = uniform * a;
+		_residualMass *= scale;
+		for (int v = 0; v < _numVertices; v++) {
+			_rank[v] *= scale;
+			_residual[v] *= scale;
+			if (!_queued[v] && Math.abs(_residual[v]) > _threshold) {
+				this.enqueue(v);
+			}
+		}
+	}
+
+	/**
+	 * Method used to move the residual of v into its rank and pass it on.
+	 */
+	private void push(int v) {
+		double delta = _residual[v];
+		_residual[v] = 0;
+		_residualMass -= Math.abs(delta);
+		_rank[v] += delta;
+
+		double mass = _dampingFactor * delta;
+		if (_outDegree[v] == 0) {
+			_uniformResidual += mass / _numVertices;
+		} else {
+			this.shiftShares(v, mass / _outDegree[v]);
+		}
+	}
+
+	/**
+	 * Method used to add share to the residual of every vertex u links to,
+	 * once per edge.
+	 */
+	private void shiftShares(int u, double share) {
+		int[] links = _outLinks[u];
+		for (int k = 0; k < _outDegree[u]; k++) {
+			this.addResidual(links[k], share);
+		}
+	}
+
+	/**
+	 * Method used to add to the residual of v, queueing v to be pushed
+	 * once it's over the threshold.
+	 */
+	private void addResidual(int v, double amount) {
+		double residual = _residual[v] + amount;
+		_residualMass += Math.abs(residual) - Math.abs(_residual[v]);
+		_residual[v] = residual;
+		if (!_queued[v] && Math.abs(_residual[v]) > _threshold) {
+			this.enqueue(v);
+		}
+	}
+
+	private void enqueue(int v) {
+		_queued[v] = true;
+		_queue[(_queueHead + _queueSize) % _queue.length] = v;
+		_queueSize++;
+	}
+
+	/**
+	 * Method used to look up the index of a vertex, which has to have been
+	 * in the graph at the last calcPageRank.
+	 */
+	private int indexOf(CS16Vertex<V> vertex) {
+		if (_g == null) {
+			throw new IllegalStateException("calcPageRank has to be run first.");
+		}
+		int number = vertex == null ? -1 : vertex.getVertexNumber();
+		int index = number >= 0 && number < _indexOf.length ? _indexOf[number] : -1;
+		if (index < 0 || _vertices[index] != vertex) {
+			throw new IllegalArgumentException("Vertex wasn't in the graph at the last calcPageRank;"
+					+ " run calcPageRank again after adding or removing vertices.");
+		}
+		return index;
+	}
+}
@@ -0,0 +1,148 @@
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * This class tests that IncrementalPageRank keeps its ranks equal to a
+ * full run of MyPageRank (with sinks redistributed) as edges come and go.
+ */
+public class IncrementalPageRankTest {
+
+	private static final PageRankConfig TIGHT = new PageRankConfig(0.85, 1e-11, 10000, PageRankConfig.Norm.L1);
+
+	/**
+	 * Checks every rank against a full run on the graph as it is now.
+	 */
+	private static void assertMatchesFullRun(IncrementalPageRank<String> incremental, Graph<String> graph) {
+		Map<CS16Vertex<String>, Double> expected = new MyPageRank<String>(TIGHT, true).calcPageRank(graph);
+		for (Map.Entry<CS16Vertex<String>, Double> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), incremental.getRank(entry.getKey()), 1e-9);
+		}
+	}
+
+	/**
+	 * Random insertions and removals, some of which turn vertices into
+	 * sinks or back, give the same ranks as starting over.
+	 */
+	@Test(timeout = 10000)
+	public void testMatchesFullRun() {
+		Graph<String> graph = new CsrGraph<>(true);
+		CS16Vertex<String>[] vertices = GraphGenerator.rmat(8, 4, 5).generateInto(graph);
+		IncrementalPageRank<String> incremental = new IncrementalPageRank<>(TIGHT);
+		incremental.calcPageRank(graph);
+		assertMatchesFullRun(incremental, graph);
+
+		Random random = new Random(9);
+		for (int k = 0; k < 40; k++) {
+			CS16Vertex<String> source = vertices[random.nextInt(vertices.length)];
+			CS16Vertex<String> target = vertices[random.nextInt(vertices.length)];
+			graph.insertEdge(source, target, 1);
+			incremental.edgeInserted(source, target);
+		}
+
+		// strip a few vertices of all their links, making them sinks
+		for (int k = 0; k < 5; k++) {
+			CS16Vertex<String> source = vertices[random.nextInt(vertices.length)];
+			List<CS16Edge<String>> edges = new ArrayList<>();
+			Iterator<CS16Edge<String>> it = graph.outgoingEdges(source);
+			while (it.hasNext()) {
+				edges.add(it.next());
+			}
+			for (CS16Edge<String> edge : edges) {
+				graph.removeEdge(edge);
+				incremental.edgeRemoved(source, edge.getVertexTwo());
+			}
+		}
+
+		incremental.update();
+		assertMatchesFullRun(incremental, graph);
+	}
+
+	/**
+	 * A link out of a sink stops it from passing its rank to everyone.
+	 */
+	@Test(timeout = 10000)
+	public void testSinkGetsLink() {
+		Graph<String> graph = new AdjacencyMatrixGraph<>(true);
+		CS16Vertex<String> a = graph.insertVertex("A");
+		CS16Vertex<String> b = graph.insertVertex("B");
+		CS16Vertex<String> c = graph.insertVertex("C");
+		graph.insertEdge(a, b, 1);
+		graph.insertEdge(b, c, 1);
+
+		IncrementalPageRank<String> incremental = new IncrementalPageRank<>(TIGHT);
+		incremental.calcPageRank(graph);
+
+		graph.insertEdge(c, a, 1);
+		incremental.edgeInserted(c, a);
+		assertTrue(incremental.update() > 0);
+
+		// a cycle ranks every page the same
+		assertEquals(1.0 / 3, incremental.getRank(a), 1e-9);
+		assertEquals(1.0 / 3, incremental.getRank(c), 1e-9);
+		assertMatchesFullRun(incremental, graph);
+	}
+
+	/**
+	 * One new link in a large graph only reaches a small part of it: far
+	 * fewer pushes than one full iteration would visit vertices.
+	 */
+	@Test(timeout = 10000)
+	public void testUpdateIsLocal() {
+		Graph<String> graph = new CsrGraph<>(true);
+		CS16Vertex<String>[] vertices = GraphGenerator.barabasiAlbert(20000, 3, 1).generateInto(graph);
+		IncrementalPageRank<String> incremental = new IncrementalPageRank<>();
+		incremental.calcPageRank(graph);
+
+		graph.insertEdge(vertices[19999], vertices[19998], 1);
+		incremental.edgeInserted(vertices[19999], vertices[19998]);
+		assertTrue(incremental.update() < vertices.length / 10);
+	}
+
+	/**
+	 * Vertices the ranks don't know about, and edges that aren't there,
+	 * are rejected.
+	 */
+	@Test(timeout = 10000)
+	public void testRejectsUnknownChanges() {
+		Graph<String> graph = new AdjacencyMatrixGraph<>(true);
+		CS16Vertex<String> a = graph.insertVertex("A");
+		CS16Vertex<String> b = graph.insertVertex("B");
+		graph.insertEdge(a, b, 1);
+
+		IncrementalPageRank<String> incremental = new IncrementalPageRank<>();
+		try {
+			incremental.update();
+			fail("update ran before calcPageRank");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		incremental.calcPageRank(graph);
+		CS16Vertex<String> c = graph.insertVertex("C");
+		try {
+			incremental.edgeInserted(a, c);
+			fail("edgeInserted took a new vertex");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			incremental.edgeRemoved(b, a);
+			fail("edgeRemoved took a missing edge");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int ids in [0, capacity) keyed by int priorities.
+ * Alongside the heap array it keeps the position of every id, so an id's
+ * key can be decreased in O(log n) time without searching for it, and
+ * nothing is boxed or allocated after construction.
+ *
+ * All methods run in O(1) time except insert, decreaseKey and removeMin,
+ * which run in O(log n) time.
+ */
+public class IndexedMinHeap {
+    // the ids in heap order
+    private int[] _heap;
+    // _keys[id] is the priority of id
+    private int[] _keys;
+    // _positions[id] is where id sits in _heap, or -1 if it isn't in the heap
+    private int[] _positions;
+    private int _size;
+
+    /**
+     * Constructor for an empty heap that can hold the ids 0 to capacity - 1.
+     */
+    public IndexedMinHeap(int capacity) {
+        _heap = new int[capacity];
+        _keys = new int[capacity];
+        _positions = new int[capacity];
+        Arrays.fill(_positions, -1);
+        _size = 0;
+    }
+
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Returns true if the id is currently in the heap.
+     */
+    public boolean contains(int id) {
+        return _positions[id] >= 0;
+    }
+
+    /**
+     * Returns the key the id was last given.
+     */
+    public int getKey(int id) {
+        return _keys[id];
+    }
+
+    /**
+     * Inserts an id that isn't in the heap with the given key.
+     */
+    public void insert(int id, int key) {
+        if(this.contains(id)){
+            throw new IllegalStateException("Id " + id + " is already in the heap.");
+        }
+
+        _keys[id] = key;
+        _heap[_size] = id;
+        _positions[id] = _size;
+        _size++;
+        this.siftUp(_size - 1);
+    }
+
+    /**
+     * Lowers the key of an id that is in the heap.
+     */
+    public void decreaseKey(int id, int key) {
+        if(key > _keys[id]){
+            throw new IllegalArgumentException("New key is larger than the current key.");
+        }
+
+        _keys[id] = key;
+        this.siftUp(_positions[id]);
+    }
+
+    /**
+     * Removes and returns the id with the smallest key.
+     */
+    public int removeMin() {
+        if(_size == 0){
+            throw new IllegalStateException("Heap is empty.");
+        }
+
+        int min = _heap[0];
+        _size--;
+        if(_size > 0){
+            _heap[0] = _heap[_size];
+            _positions[_heap[0]] = 0;
+            this.siftDown(0);
+        }
+        _positions[min] = -1;
+        return min;
+    }
+
+    /**
+     * Moves the id at index i up until its parent's key is no larger.
+     */
+    private void siftUp(int i) {
+        int id = _heap[i];
+        int key = _keys[id];
+        while(i > 0){
+            int parent = (i - 1) >>> 1;
+            if(_keys[_heap[parent]] <= key){
+                break;
+            }
+            _heap[i] = _heap[parent];
+            _positions[_heap[i]] = i;
+            i = parent;
+        }
+        _heap[i] = id;
+        _positions[id] = i;
+    }
+
+    /**
+     * Moves the id at index i down until neither child has a smaller key.
+     */
+    private void siftDown(int i) {
+        int id = _heap[i];
+        int key = _keys[id];
+        while(true){
+            int child = 2 * i + 1;
+            if(child >= _size){
+                break;
+            }
+            if(child + 1 < _size && _keys[_heap[child + 1]] < _keys[_heap[child]]){
+                child++;
+            }
+            if(_keys[_heap[child]] >= key){
+                break;
+            }
+            _heap[i] = _heap[child];
+            _positions[_heap[i]] = i;
+            i = child;
+        }
+        _heap[i] = id;
+        _positions[id] = i;
+    }
+}
@@ -0,0 +1,407 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * This class loads a graph from a links file, the format of the sample
+ * inputs such as olympics_links.txt:
+ *
+ * <pre>
+ * *** VERTICES ***
+ * name x y
+ * ...
+ * *** EDGES ***
+ * name name weight
+ * ...
+ * </pre>
+ *
+ * The coordinates on a vertex line are only used by the visualizer, so
+ * they are skipped. The file is memory-mapped a window at a time and
+ * parsed straight out of the mapped bytes: the only Strings made are the
+ * vertex names themselves, edge lines are looked up by their raw bytes,
+ * and the weights are parsed as ints in place. Edges are handed to the
+ * graph in fixed-size batches (through insertEdges when the graph is
+ * BulkLoadable), so apart from the graph and one name table entry per
+ * vertex the loader runs in constant memory, however big the file is.
+ */
+public class LinksFileLoader {
+
+    // how much of the file is mapped at once
+    private static final int WINDOW_SIZE = 1 << 26;
+    // how many edges are collected before they're inserted
+    private static final int BATCH_SIZE = 1 << 12;
+
+    private static final byte[] VERTICES_HEADER = "*** VERTICES ***".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EDGES_HEADER = "*** EDGES ***".getBytes(StandardCharsets.US_ASCII);
+
+    // which part of the file the current line is in
+    private static final int BEFORE_VERTICES = 0;
+    private static final int IN_VERTICES = 1;
+    private static final int IN_EDGES = 2;
+
+    private final int _windowSize;
+
+    // state of the load in progress
+    private Graph<String> _graph;
+    private NameTable _names;
+    private int _section;
+    private long _lineNumber;
+    // (start, end) of up to three tokens on the current line
+    private final int[] _tokens = new int[6];
+    // the current batch of edges, as indices into the name table
+    private final int[] _sources = new int[BATCH_SIZE];
+    private final int[] _targets = new int[BATCH_SIZE];
+    private final int[] _weights = new int[BATCH_SIZE];
+    private int _batchSize;
+
+    /**
+     * Constructor for a loader that maps 64MB of the file at a time.
+     */
+    public LinksFileLoader() {
+        this(WINDOW_SIZE);
+    }
+
+    /**
+     * Constructor that chooses how much of the file is mapped at once. No
+     * line can be longer than the window.
+     */
+    LinksFileLoader(int windowSize) {
+        _windowSize = windowSize;
+    }
+
+    /**
+     * Loads the vertices and edges of a links file into graph, on top of
+     * whatever it already holds. Every vertex element is the vertex's name.
+     *
+     * <p>
+     * This runs in O(file size) time, plus the graph's insert times.
+     * </p>
+     *
+     * @param file the links file to read
+     * @param graph the graph to load it into
+     * @throws IOException if the file can't be read or isn't a valid links
+     *             file
+     */
+    public void load(Path file, Graph<String> graph) throws IOException {
+        _graph = graph;
+        _names = new NameTable();
+        _section = BEFORE_VERTICES;
+        _lineNumber = 0;
+        _batchSize = 0;
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = channel.size();
+            long position = 0;
+
+            while(position < size){
+                int length = (int) Math.min(_windowSize, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                // parse every complete line; a line cut off by the end of
+                // the window is parsed again from the start of the next one
+                int start = 0;
+                while(start < length){
+                    int end = start;
+                    while(end < length && window.get(end) != '\n'){
+                        end++;
+                    }
+                    if(end == length && !last){
+                        break;
+                    }
+                    this.parseLine(window, start, end);
+                    start = end + 1;
+                }
+
+                if(start == 0){
+                    throw new IOException("Line " + (_lineNumber + 1) + " is longer than the mapped window.");
+                }
+                position = last ? size : position + start;
+            }
+
+            this.flushEdges();
+        } finally {
+            _graph = null;
+            _names = null;
+        }
+    }
+
+    /**
+     * Parses the line held in bytes [start, end) of the window.
+     */
+    private void parseLine(MappedByteBuffer window, int start, int end) throws IOException {
+        _lineNumber++;
+
+        int numTokens = this.tokenize(window, start, end);
+        if(numTokens == 0){
+            return;
+        }
+
+        if(window.get(_tokens[0]) == '*'){
+            int from = _tokens[0];
+            int to = _tokens[2 * numTokens - 1];
+            if(matches(window, from, to, VERTICES_HEADER)){
+                _section = IN_VERTICES;
+            } else if(matches(window, from, to, EDGES_HEADER)){
+                _section = IN_EDGES;
+            } else {
+                throw new IOException("Unknown header on line " + _lineNumber + ".");
+            }
+            return;
+        }
+
+        if(_section == IN_VERTICES){
+            this.addVertex(window, _tokens[0], _tokens[1]);
+        } else if(_section == IN_EDGES){
+            if(numTokens < 3){
+                throw new IOException("Edge on line " + _lineNumber + " needs two vertices and a weight.");
+            }
+            this.addEdge(this.lookUp(window, _tokens[0], _tokens[1]),
+                    this.lookUp(window, _tokens[2], _tokens[3]),
+                    this.parseInt(window, _tokens[4], _tokens[5]));
+        } else {
+            throw new IOException("Line " + _lineNumber + " comes before the *** VERTICES *** header.");
+        }
+    }
+
+    /**
+     * Finds the first three whitespace-separated tokens in [start, end),
+     * storing their bounds in _tokens, and returns how many there are.
+     */
+    private int tokenize(MappedByteBuffer window, int start, int end) {
+        int numTokens = 0;
+        int k = start;
+        while(numTokens < 3){
+            while(k < end && isSpace(window.get(k))){
+                k++;
+            }
+            if(k == end){
+                break;
+            }
+            _tokens[2 * numTokens] = k;
+            while(k < end && !isSpace(window.get(k))){
+                k++;
+            }
+            _tokens[2 * numTokens + 1] = k;
+            numTokens++;
+        }
+
+        // a header is the only line whose tokens run past the third
+        if(numTokens == 3 && window.get(_tokens[0]) == '*'){
+            int last = end;
+            while(isSpace(window.get(last - 1))){
+                last--;
+            }
+            _tokens[5] = last;
+        }
+        return numTokens;
+    }
+
+    /**
+     * Inserts a vertex named by the bytes [start, end) of the window.
+     */
+    private void addVertex(MappedByteBuffer window, int start, int end) throws IOException {
+        if(_names.find(window, start, end) >= 0){
+            throw new IOException("Vertex on line " + _lineNumber + " is already in the file.");
+        }
+
+        byte[] name = new byte[end - start];
+        for(int k = 0; k < name.length; k++){
+            name[k] = window.get(start + k);
+        }
+        _names.add(name, _graph.insertVertex(new String(name, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Returns the index of the vertex named by the bytes [start, end).
+     */
+    private int lookUp(MappedByteBuffer window, int start, int end) throws IOException {
+        int index = _names.find(window, start, end);
+        if(index < 0){
+            throw new IOException("Edge on line " + _lineNumber + " names a vertex that isn't in the file.");
+        }
+        return index;
+    }
+
+    /**
+     * Adds an edge to the current batch, inserting the batch once it's full.
+     */
+    private void addEdge(int source, int target, int weight) {
+        _sources[_batchSize] = source;
+        _targets[_batchSize] = target;
+        _weights[_batchSize] = weight;
+        _batchSize++;
+
+        if(_batchSize == BATCH_SIZE){
+            this.flushEdges();
+        }
+    }
+
+    /**
+     * Inserts the current batch of edges into the graph.
+     */
+    @SuppressWarnings("unchecked")
+    private void flushEdges() {
+        CS16Vertex<String>[] vertices = _names.vertices();
+
+        if(_graph instanceof BulkLoadable){
+            ((BulkLoadable<String>) _graph).insertEdges(vertices, _sources, _targets, _weights, _batchSize);
+        } else {
+            for(int k = 0; k < _batchSize; k++){
+                _graph.insertEdge(vertices[_sources[k]], vertices[_targets[k]], _weights[k]);
+            }
+        }
+        _batchSize = 0;
+    }
+
+    /**
+     * Parses the bytes [start, end) as a decimal int.
+     */
+    private int parseInt(MappedByteBuffer window, int start, int end) throws IOException {
+        boolean negative = window.get(start) == '-';
+        int k = negative || window.get(start) == '+' ? start + 1 : start;
+        if(k == end){
+            throw new IOException("Bad weight on line " + _lineNumber + ".");
+        }
+
+        long value = 0;
+        for(; k < end; k++){
+            int digit = window.get(k) - '0';
+            if(digit < 0 || digit > 9){
+                throw new IOException("Bad weight on line " + _lineNumber + ".");
+            }
+            value = 10 * value + digit;
+            if(value > (long) Integer.MAX_VALUE + 1){
+                throw new IOException("Weight on line " + _lineNumber + " doesn't fit in an int.");
+            }
+        }
+
+        value = negative ? -value : value;
+        if(value > Integer.MAX_VALUE){
+            throw new IOException("Weight on line " + _lineNumber + " doesn't fit in an int.");
+        }
+        return (int) value;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Returns whether the bytes [start, end) of the window are expected.
+     */
+    private static boolean matches(MappedByteBuffer window, int start, int end, byte[] expected) {
+        if(end - start != expected.length){
+            return false;
+        }
+        for(int k = 0; k < expected.length; k++){
+            if(window.get(start + k) != expected[k]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An open-addressing hash table from vertex names, as raw bytes, to
+     * vertices, so edge lines can be looked up without decoding them.
+     */
+    private static class NameTable {
+        private byte[][] _names = new byte[16][];
+        private CS16Vertex<String>[] _vertices = newVertexArray(16);
+        private int _size;
+        // index + 1 of the name in each slot, 0 for an empty slot
+        private int[] _slots = new int[32];
+
+        @SuppressWarnings("unchecked")
+        private static CS16Vertex<String>[] newVertexArray(int length) {
+            return new CS16Vertex[length];
+        }
+
+        /**
+         * Returns the vertices, indexed the way find numbers them.
+         */
+        CS16Vertex<String>[] vertices() {
+            return _vertices;
+        }
+
+        /**
+         * Returns the index of the name held in the bytes [start, end) of
+         * the window, or -1 if it isn't in the table.
+         */
+        int find(MappedByteBuffer window, int start, int end) {
+            int hash = 0;
+            for(int k = start; k < end; k++){
+                hash = 31 * hash + window.get(k);
+            }
+
+            int mask = _slots.length - 1;
+            for(int slot = mix(hash) & mask; _slots[slot] != 0; slot = (slot + 1) & mask){
+                byte[] name = _names[_slots[slot] - 1];
+                if(name.length == end - start && matchesName(window, start, name)){
+                    return _slots[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds a name that isn't in the table yet.
+         */
+        void add(byte[] name, CS16Vertex<String> vertex) {
+            if(_size == _names.length){
+                _names = Arrays.copyOf(_names, 2 * _size);
+                _vertices = Arrays.copyOf(_vertices, 2 * _size);
+            }
+            _names[_size] = name;
+            _vertices[_size] = vertex;
+            _size++;
+
+            // keep the table at most half full
+            if(2 * _size > _slots.length){
+                _slots = new int[2 * _slots.length];
+                for(int index = 0; index < _size; index++){
+                    this.place(index);
+                }
+            } else {
+                this.place(_size - 1);
+            }
+        }
+
+        private void place(int index) {
+            int hash = 0;
+            for(byte b : _names[index]){
+                hash = 31 * hash + b;
+            }
+
+            int mask = _slots.length - 1;
+            int slot = mix(hash) & mask;
+            while(_slots[slot] != 0){
+                slot = (slot + 1) & mask;
+            }
+            _slots[slot] = index + 1;
+        }
+
+        private static boolean matchesName(MappedByteBuffer window, int start, byte[] name) {
+            for(int k = 0; k < name.length; k++){
+                if(window.get(start + k) != name[k]){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * This class tests LinksFileLoader on the sample links files, and on
+ * windows small enough that lines are cut off at their ends.
+ */
+public class LinksFileLoaderTest {
+
+    /**
+     * Lists the edges of a graph as "source target weight" strings, sorted.
+     */
+    private static List<String> edgeList(Graph<String> graph) {
+        List<String> edges = new ArrayList<>();
+        Iterator<CS16Edge<String>> it = graph.edges();
+        while (it.hasNext()) {
+            CS16Edge<String> edge = it.next();
+            edges.add(edge.getVertexOne().element() + " " + edge.getVertexTwo().element() + " " + edge.element());
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    /**
+     * Lists the edge lines of a links file, sorted.
+     */
+    private static List<String> edgeLines(Path file) throws IOException {
+        List<String> edges = new ArrayList<>();
+        boolean inEdges = false;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.startsWith("*** EDGES")) {
+                inEdges = true;
+            } else if (inEdges && !line.trim().isEmpty()) {
+                edges.add(line.trim());
+            }
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    /**
+     * Every sample file loads into both bulk-loadable graphs with all of its
+     * edges, whatever the window size.
+     */
+    @Test(timeout = 10000)
+    public void testLoadsSampleFiles() throws IOException {
+        String[] files = {"olympics_links.txt", "vaccines_links.txt",
+                "flatearth_links.txt", "global_warming_links.txt"};
+
+        for (String name : files) {
+            Path file = Paths.get(name);
+            List<String> expected = edgeLines(file);
+
+            for (int windowSize : new int[] {1 << 20, 128, 81}) {
+                Graph<String> csr = new CsrGraph<>(true);
+                new LinksFileLoader(windowSize).load(file, csr);
+                assertEquals(name, expected, edgeList(csr));
+
+                Graph<String> matrix = AdjacencyMatrixGraph.growable(true);
+                new LinksFileLoader(windowSize).load(file, matrix);
+                assertEquals(name, expected, edgeList(matrix));
+                assertEquals(csr.getNumVertices(), matrix.getNumVertices());
+            }
+        }
+    }
+
+    /**
+     * A graph that isn't BulkLoadable is loaded one edge at a time.
+     */
+    @Test(timeout = 10000)
+    public void testLoadsIntoAnyGraph() throws IOException {
+        Path file = Paths.get("olympics_links.txt");
+        Graph<String> graph = new BitMatrixGraph<>(true);
+        new LinksFileLoader().load(file, graph);
+
+        assertEquals(edgeLines(file), edgeList(graph));
+    }
+
+    /**
+     * Edges naming vertices that aren't in the file are rejected.
+     */
+    @Test(expected = IOException.class, timeout = 10000)
+    public void testUnknownVertex() throws IOException {
+        Path file = Files.createTempFile("links", ".txt");
+        try {
+            Files.write(file, "*** VERTICES ***\na 0 0\n*** EDGES ***\na b 1\n".getBytes(StandardCharsets.UTF_8));
+            new LinksFileLoader().load(file, new CsrGraph<String>(true));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * A line that doesn't fit in the window is reported rather than split.
+     */
+    @Test(expected = IOException.class, timeout = 10000)
+    public void testLineLongerThanWindow() throws IOException {
+        new LinksFileLoader(8).load(Paths.get("olympics_links.txt"), new CsrGraph<String>(true));
+    }
+}
@@ -0,0 +1,287 @@
+package graph;
+
+import java.util.Iterator;
+import java.util.List;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.DirectionException;
+import support.graph.Graph;
+import support.graph.InvalidEdgeException;
+import support.graph.InvalidVertexException;
+import support.graph.NoSuchEdgeException;
+import support.graph.NoSuchVertexException;
+
+/**
+ * This class wraps any Graph and times every call to it into a
+ * GraphMetrics, under the timer "Graph." followed by the method name. The
+ * vertices and edges are the wrapped graph's own, so the algorithms run on
+ * a MeteredGraph exactly as on the graph inside it.
+ *
+ * The methods that return edge iterators (edges, incomingEdges and
+ * outgoingEdges) are timed up to when the iterator is handed back, and
+ * every edge taken from the iterator afterwards is added to the timer's
+ * edges scanned, so edges scanned over count gives the edges per call.
+ *
+ * Metering costs two System.nanoTime calls per call, so it's meant for
+ * profiling runs: with metrics off, the graph is simply used unwrapped.
+ */
+public class MeteredGraph<V> implements Graph<V> {
+
+    private final Graph<V> _graph;
+    private final GraphMetrics _metrics;
+
+    // the timers are looked up once, so a call costs no map lookups
+    private final GraphMetrics.Timer _vertices;
+    private final GraphMetrics.Timer _edges;
+    private final GraphMetrics.Timer _insertVertex;
+    private final GraphMetrics.Timer _insertEdge;
+    private final GraphMetrics.Timer _removeVertex;
+    private final GraphMetrics.Timer _removeEdge;
+    private final GraphMetrics.Timer _connectingEdge;
+    private final GraphMetrics.Timer _incomingEdges;
+    private final GraphMetrics.Timer _outgoingEdges;
+    private final GraphMetrics.Timer _numOutgoingEdges;
+    private final GraphMetrics.Timer _opposite;
+    private final GraphMetrics.Timer _endVertices;
+    private final GraphMetrics.Timer _areAdjacent;
+    private final GraphMetrics.Timer _toggleDirected;
+    private final GraphMetrics.Timer _clear;
+    private final GraphMetrics.Timer _getNumVertices;
+
+    /**
+     * Constructor for a graph that meters calls to graph into metrics.
+     */
+    public MeteredGraph(Graph<V> graph, GraphMetrics metrics) {
+        if(graph == null || metrics == null){
+            throw new IllegalArgumentException("Graph or metrics is null.");
+        }
+        _graph = graph;
+        _metrics = metrics;
+
+        _vertices = metrics.timer("Graph.vertices");
+        _edges = metrics.timer("Graph.edges");
+        _insertVertex = metrics.timer("Graph.insertVertex");
+        _insertEdge = metrics.timer("Graph.insertEdge");
+        _removeVertex = metrics.timer("Graph.removeVertex");
+        _removeEdge = metrics.timer("Graph.removeEdge");
+        _connectingEdge = metrics.timer("Graph.connectingEdge");
+        _incomingEdges = metrics.timer("Graph.incomingEdges");
+        _outgoingEdges = metrics.timer("Graph.outgoingEdges");
+        _numOutgoingEdges = metrics.timer("Graph.numOutgoingEdges");
+        _opposite = metrics.timer("Graph.opposite");
+        _endVertices = metrics.timer("Graph.endVertices");
+        _areAdjacent = metrics.timer("Graph.areAdjacent");
+        _toggleDirected = metrics.timer("Graph.toggleDirected");
+        _clear = metrics.timer("Graph.clear");
+        _getNumVertices = metrics.timer("Graph.getNumVertices");
+    }
+
+    /**
+     * Returns the graph being metered.
+     */
+    public Graph<V> getGraph() {
+        return _graph;
+    }
+
+    /**
+     * Returns the metrics the calls are recorded into.
+     */
+    public GraphMetrics getMetrics() {
+        return _metrics;
+    }
+
+    @Override
+    public Iterator<CS16Vertex<V>> vertices() {
+        long start = System.nanoTime();
+        try{
+            return _graph.vertices();
+        } finally {
+            _vertices.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Iterator<CS16Edge<V>> edges() {
+        long start = System.nanoTime();
+        try{
+            return new ScanIterator<>(_graph.edges(), _edges);
+        } finally {
+            _edges.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public CS16Vertex<V> insertVertex(V vertElement) {
+        long start = System.nanoTime();
+        try{
+            return _graph.insertVertex(vertElement);
+        } finally {
+            _insertVertex.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public CS16Edge<V> insertEdge(CS16Vertex<V> v1, CS16Vertex<V> v2, Integer edgeElement)
+            throws InvalidVertexException {
+        long start = System.nanoTime();
+        try{
+            return _graph.insertEdge(v1, v2, edgeElement);
+        } finally {
+            _insertEdge.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public V removeVertex(CS16Vertex<V> vert) throws InvalidVertexException {
+        long start = System.nanoTime();
+        try{
+            return _graph.removeVertex(vert);
+        } finally {
+            _removeVertex.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Integer removeEdge(CS16Edge<V> edge) throws InvalidEdgeException {
+        long start = System.nanoTime();
+        try{
+            return _graph.removeEdge(edge);
+        } finally {
+            _removeEdge.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public CS16Edge<V> connectingEdge(CS16Vertex<V> v1, CS16Vertex<V> v2)
+            throws InvalidVertexException, NoSuchEdgeException {
+        long start = System.nanoTime();
+        try{
+            return _graph.connectingEdge(v1, v2);
+        } finally {
+            _connectingEdge.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Iterator<CS16Edge<V>> incomingEdges(CS16Vertex<V> vert) throws InvalidVertexException {
+        long start = System.nanoTime();
+        try{
+            return new ScanIterator<>(_graph.incomingEdges(vert), _incomingEdges);
+        } finally {
+            _incomingEdges.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Iterator<CS16Edge<V>> outgoingEdges(CS16Vertex<V> vert) throws InvalidVertexException {
+        long start = System.nanoTime();
+        try{
+            return new ScanIterator<>(_graph.outgoingEdges(vert), _outgoingEdges);
+        } finally {
+            _outgoingEdges.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int numOutgoingEdges(CS16Vertex<V> vert) throws InvalidVertexException, DirectionException {
+        long start = System.nanoTime();
+        try{
+            return _graph.numOutgoingEdges(vert);
+        } finally {
+            _numOutgoingEdges.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public CS16Vertex<V> opposite(CS16Vertex<V> vert, CS16Edge<V> edge)
+            throws InvalidVertexException, InvalidEdgeException, NoSuchVertexException {
+        long start = System.nanoTime();
+        try{
+            return _graph.opposite(vert, edge);
+        } finally {
+            _opposite.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<CS16Vertex<V>> endVertices(CS16Edge<V> e) throws InvalidEdgeException {
+        long start = System.nanoTime();
+        try{
+            return _graph.endVertices(e);
+        } finally {
+            _endVertices.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean areAdjacent(CS16Vertex<V> v1, CS16Vertex<V> v2) throws InvalidVertexException {
+        long start = System.nanoTime();
+        try{
+            return _graph.areAdjacent(v1, v2);
+        } finally {
+            _areAdjacent.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void toggleDirected() {
+        long start = System.nanoTime();
+        try{
+            _graph.toggleDirected();
+        } finally {
+            _toggleDirected.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void clear() {
+        long start = System.nanoTime();
+        try{
+            _graph.clear();
+        } finally {
+            _clear.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int getNumVertices() {
+        long start = System.nanoTime();
+        try{
+            return _graph.getNumVertices();
+        } finally {
+            _getNumVertices.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * An edge iterator that adds every edge it hands out to a timer's
+     * edges scanned.
+     */
+    private static class ScanIterator<V> implements Iterator<CS16Edge<V>> {
+        private final Iterator<CS16Edge<V>> _it;
+        private final GraphMetrics.Timer _timer;
+
+        ScanIterator(Iterator<CS16Edge<V>> it, GraphMetrics.Timer timer) {
+            _it = it;
+            _timer = timer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _it.hasNext();
+        }
+
+        @Override
+        public CS16Edge<V> next() {
+            CS16Edge<V> edge = _it.next();
+            _timer.addEdgesScanned(1);
+            return edge;
+        }
+
+        @Override
+        public void remove() {
+            _it.remove();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package graph;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import support.graph.CS16Edge;
+
+/**
+ * The edges of a Minimum Spanning Forest, stored in a plain array along
+ * with their total weight. It is a read-only Collection, so it can be
+ * returned straight from genMinSpanForest, but it costs one array rather
+ * than a HashSet entry per edge.
+ *
+ * size and getTotalWeight run in O(1) time, and contains runs in O(|E|)
+ * time since the edges aren't hashed.
+ */
+public class MsfResult<V> extends AbstractCollection<CS16Edge<V>> {
+    private CS16Edge<V>[] _edges;
+    private int _size;
+    private long _totalWeight;
+
+    /**
+     * Constructor for an empty forest with room for capacity edges, which
+     * for a forest on |V| vertices never needs to be more than |V| - 1.
+     */
+    @SuppressWarnings("unchecked")
+    public MsfResult(int capacity) {
+        _edges = new CS16Edge[Math.max(1, capacity)];
+        _size = 0;
+        _totalWeight = 0;
+    }
+
+    /**
+     * Adds an edge to the forest. Only the MSF algorithms call this.
+     */
+    void addEdge(CS16Edge<V> edge) {
+        if(_size == _edges.length){
+            _edges = Arrays.copyOf(_edges, 2 * _size);
+        }
+        _edges[_size++] = edge;
+        _totalWeight += edge.element();
+    }
+
+    /**
+     * Returns the sum of the weights of the edges in the forest.
+     */
+    public long getTotalWeight() {
+        return _totalWeight;
+    }
+
+    /**
+     * Returns the edges of the forest, in the order they were added.
+     */
+    public CS16Edge<V>[] edgeArray() {
+        return Arrays.copyOf(_edges, _size);
+    }
+
+    @Override
+    public int size() {
+        return _size;
+    }
+
+    @Override
+    public Iterator<CS16Edge<V>> iterator() {
+        return new Iterator<CS16Edge<V>>() {
+            private int _next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return _next < _size;
+            }
+
+            @Override
+            public CS16Edge<V> next() {
+                if(!this.hasNext()){
+                    throw new NoSuchElementException();
+                }
+                return _edges[_next++];
+            }
+        };
+    }
+}
@@ -134,6 +134,9 @@ public class MsfTest {
     public static Collection<String> msts() {
         List<String> algoNames = new ArrayList<>();
         algoNames.add("graph.MyPrimJarnik");
+        algoNames.add("graph.MyIndexedPrimJarnik");
+        algoNames.add("graph.MyKruskal");
+        algoNames.add("graph.MyBoruvka");
         return algoNames;
     }
 
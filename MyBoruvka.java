@@ -0,0 +1,248 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import support.graph.CS16Edge;
+import support.graph.CS16GraphVisualizer;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+import support.graph.MinSpanForest;
+
+/**
+ * In this class I implemented Boruvka's algorithm for generating
+ * Minimum Spanning Forests. Every round, each tree of the forest
+ * finds the cheapest edge leaving it, all of those edges are added at
+ * once, and the trees they join are merged. The number of trees at
+ * least halves every round, so there are at most log(|V|) rounds.
+ *
+ * Finding the cheapest edges is the expensive part, and every edge can
+ * be looked at independently, so the edges are split into ranges that
+ * run as ForkJoin tasks on the common pool (see setParallelism). Edges
+ * are compared by weight and then by index, so there are no ties, the
+ * chosen edges never form a cycle and the forest is the same no matter
+ * how many tasks run.
+ */
+public class MyBoruvka<V> implements MinSpanForest<V> {
+
+    // marks a tree that hasn't found an edge leaving it yet
+    private static final long NO_EDGE = Long.MAX_VALUE;
+
+    // number of edge ranges each round is split into
+    private int _parallelism = 1;
+
+    // edge k joins the vertices with dense indices _src[k] and _dst[k]
+    private int[] _src;
+    private int[] _dst;
+    // (weight << 32 | edge index) of every edge, which orders edges with no ties
+    private long[] _keys;
+    private int _numEdges;
+    // _tree[v] is the index of the root of the tree holding v
+    private int[] _tree;
+    // cheapest key leaving each tree, indexed by its root
+    private AtomicLongArray _cheapest;
+
+    /**
+     * Sets how many ForkJoin tasks each round is split into. A
+     * parallelism of 1 (the default) runs everything on the calling
+     * thread; anything higher runs the tasks on the common pool.
+     *
+     * @param parallelism the number of tasks per round, at least 1
+     */
+    public void setParallelism(int parallelism) {
+        if(parallelism < 1){
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        _parallelism = parallelism;
+    }
+
+    /**
+     * This method implements Boruvka's algorithm. It returns the
+     * collection of edges of the Minimum Spanning Forest (MSF) for
+     * the given graph, g.
+     *
+     * This algorithm runs in O((|E| + |V|)log(|V|)) time, divided
+     * between the tasks.
+     * @param g Your graph
+     * @param visualizer Not used by this implementation.
+     * @return returns the edges of your MSF along with their total weight
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public MsfResult<V> genMinSpanForest(Graph<V> g, CS16GraphVisualizer<V> visualizer) {
+
+        // give every vertex a dense index
+        CS16Vertex<V>[] vertices = new CS16Vertex[Math.max(16, g.getNumVertices())];
+        int numVertices = 0;
+        int maxNumber = 0;
+
+        Iterator<CS16Vertex<V>> vertexIt = g.vertices();
+        while(vertexIt.hasNext()){
+            CS16Vertex<V> vertex = vertexIt.next();
+            if(numVertices == vertices.length){
+                vertices = Arrays.copyOf(vertices, 2 * numVertices);
+            }
+            vertices[numVertices++] = vertex;
+            maxNumber = Math.max(maxNumber, vertex.getVertexNumber());
+        }
+
+        int[] indexOf = new int[maxNumber + 1];
+        for(int v = 0; v < numVertices; v++){
+            indexOf[vertices[v].getVertexNumber()] = v;
+        }
+
+        // copy the edges into primitive arrays
+        CS16Edge<V>[] edges = new CS16Edge[16];
+        _src = new int[16];
+        _dst = new int[16];
+        _keys = new long[16];
+        _numEdges = 0;
+
+        Iterator<CS16Edge<V>> edgeIt = g.edges();
+        while(edgeIt.hasNext()){
+            CS16Edge<V> edge = edgeIt.next();
+            if(_numEdges == edges.length){
+                edges = Arrays.copyOf(edges, 2 * _numEdges);
+                _src = Arrays.copyOf(_src, 2 * _numEdges);
+                _dst = Arrays.copyOf(_dst, 2 * _numEdges);
+                _keys = Arrays.copyOf(_keys, 2 * _numEdges);
+            }
+
+            edges[_numEdges] = edge;
+            _src[_numEdges] = indexOf[edge.getVertexOne().getVertexNumber()];
+            _dst[_numEdges] = indexOf[edge.getVertexTwo().getVertexNumber()];
+            _keys[_numEdges] = ((long) edge.element() << 32) | _numEdges;
+            _numEdges++;
+        }
+
+        // every vertex starts out as its own tree
+        UnionFind trees = new UnionFind(numVertices);
+        _tree = new int[numVertices];
+        _cheapest = new AtomicLongArray(numVertices);
+        for(int v = 0; v < numVertices; v++){
+            _tree[v] = v;
+            _cheapest.set(v, NO_EDGE);
+        }
+
+        MsfResult<V> MSF = new MsfResult<>(numVertices);
+        boolean merged = true;
+
+        while(merged){
+            merged = false;
+
+            // each tree finds the cheapest edge leaving it
+            this.runTasks(_numEdges, true);
+
+            // add those edges, merging the trees they join
+            for(int t = 0; t < numVertices; t++){
+                long key = _cheapest.get(t);
+                if(key == NO_EDGE){
+                    continue;
+                }
+                _cheapest.set(t, NO_EDGE);
+
+                // both trees may have picked the same edge, so it's only added once
+                int k = (int) key;
+                if(trees.union(_src[k], _dst[k])){
+                    MSF.addEdge(edges[k]);
+                    merged = true;
+                }
+            }
+
+            // relabel every vertex with the root of its merged tree
+            if(merged){
+                this.runTasks(numVertices, false, trees);
+            }
+        }
+
+        return MSF;
+    }
+
+    /**
+     * Runs one phase of a round over the ints 0 to n - 1.
+     */
+    private void runTasks(int n, boolean findCheapest) {
+        this.runTasks(n, findCheapest, null);
+    }
+
+    /**
+     * Runs one phase of a round over the ints 0 to n - 1, split into
+     * _parallelism tasks.
+     */
+    private void runTasks(int n, boolean findCheapest, UnionFind trees) {
+        int numRanges = Math.max(1, Math.min(_parallelism, n));
+        if(numRanges == 1){
+            new RoundTask(0, n, findCheapest, trees).compute();
+            return;
+        }
+
+        List<RoundTask> tasks = new ArrayList<>(numRanges);
+        for(int r = 0; r < numRanges; r++){
+            int from = (int) ((long) n * r / numRanges);
+            int to = (int) ((long) n * (r + 1) / numRanges);
+            tasks.add(new RoundTask(from, to, findCheapest, trees));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * Offers the edges in [from, to) to the trees at both of their ends.
+     */
+    private void findCheapest(int from, int to) {
+        for(int k = from; k < to; k++){
+            int treeOne = _tree[_src[k]];
+            int treeTwo = _tree[_dst[k]];
+            if(treeOne != treeTwo){
+                this.offer(treeOne, _keys[k]);
+                this.offer(treeTwo, _keys[k]);
+            }
+        }
+    }
+
+    /**
+     * Lowers the cheapest key of a tree to key, if key is smaller.
+     */
+    private void offer(int tree, long key) {
+        long current = _cheapest.get(tree);
+        while(key < current && !_cheapest.compareAndSet(tree, current, key)){
+            current = _cheapest.get(tree);
+        }
+    }
+
+    /**
+     * One range of one phase of a round: either finding the cheapest
+     * edges or relabelling the vertices.
+     */
+    private class RoundTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int _from;
+        private final int _to;
+        private final boolean _findCheapest;
+        private final UnionFind _trees;
+
+        RoundTask(int from, int to, boolean findCheapest, UnionFind trees) {
+            _from = from;
+            _to = to;
+            _findCheapest = findCheapest;
+            _trees = trees;
+        }
+
+        @Override
+        protected void compute() {
+            if(_findCheapest){
+                findCheapest(_from, _to);
+            } else {
+                // root doesn't write, so the tasks can share the union-find
+                for(int v = _from; v < _to; v++){
+                    _tree[v] = _trees.root(v);
+                }
+            }
+        }
+    }
+}
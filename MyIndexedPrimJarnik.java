@@ -0,0 +1,125 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import support.graph.CS16Edge;
+import support.graph.CS16GraphVisualizer;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+import support.graph.MinSpanForest;
+
+/**
+ * In this class I implemented the same Prim-Jarnik algorithm as
+ * MyPrimJarnik, but without decorators or boxed keys. The cost, the
+ * visited flag and the cheapest edge of every vertex live in plain
+ * arrays indexed by vertex number, and the priority queue is an
+ * IndexedMinHeap of vertex numbers with int keys, so a relaxation is
+ * a couple of array writes rather than hash lookups and allocations.
+ */
+public class MyIndexedPrimJarnik<V> implements MinSpanForest<V> {
+
+    /**
+     * This method implements Prim-Jarnik's algorithm and extends
+     * it slightly to account for disconnected graphs. It returns
+     * the collection of edges of the Minimum Spanning Forest (MSF) for
+     * the given graph, g.
+     *
+     * This algorithm runs in O((|E| + |V|)log(|V|)) time
+     * @param g Your graph
+     * @param visualizer Not used by this implementation.
+     * @return returns the edges of your MSF along with their total weight
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public MsfResult<V> genMinSpanForest(Graph<V> g, CS16GraphVisualizer<V> visualizer) {
+
+        // collecting the vertices to size the arrays by the largest vertex number
+        CS16Vertex<V>[] vertices = new CS16Vertex[Math.max(16, g.getNumVertices())];
+        int numVertices = 0;
+        int maxNumber = 0;
+
+        Iterator<CS16Vertex<V>> it = g.vertices();
+        while(it.hasNext()){
+            CS16Vertex<V> vertex = it.next();
+            if(numVertices == vertices.length){
+                vertices = Arrays.copyOf(vertices, 2 * numVertices);
+            }
+            vertices[numVertices++] = vertex;
+            maxNumber = Math.max(maxNumber, vertex.getVertexNumber());
+        }
+
+        // arrays keyed by vertex number
+        int[] cost = new int[maxNumber + 1];
+        boolean[] visited = new boolean[maxNumber + 1];
+        CS16Edge<V>[] cheapestEdge = new CS16Edge[maxNumber + 1];
+        Arrays.fill(cost, Integer.MAX_VALUE);
+
+        IndexedMinHeap priorityQ = new IndexedMinHeap(maxNumber + 1);
+        MsfResult<V> MSF = new MsfResult<>(numVertices);
+
+        // every vertex not reached yet starts a new tree of the forest
+        for(int i = 0; i < numVertices; i++){
+            CS16Vertex<V> root = vertices[i];
+            if(visited[root.getVertexNumber()]){
+                continue;
+            }
+
+            cost[root.getVertexNumber()] = 0;
+            priorityQ.insert(root.getVertexNumber(), 0);
+
+            while(!priorityQ.isEmpty()){
+
+                //  Remove the minimum vertex from the priority queue
+                int curr = priorityQ.removeMin();
+                visited[curr] = true;
+
+                // the edge that most recently updated the vertex joins the MSF
+                if(cheapestEdge[curr] != null){
+                    MSF.addEdge(cheapestEdge[curr]);
+                }
+
+                CS16Vertex<V> currV = this.endpoint(cheapestEdge[curr], curr, root);
+
+                Iterator<CS16Edge<V>> iterator = g.incomingEdges(currV);
+                while(iterator.hasNext()){
+                    CS16Edge<V> edge = iterator.next();
+
+                    // ...whose opposite vertex remains unvisited
+                    int opp = g.opposite(currV, edge).getVertexNumber();
+                    if(visited[opp]){
+                        continue;
+                    }
+
+                    int edgeWeight = edge.element();
+                    if(cost[opp] > edgeWeight){
+                        cost[opp] = edgeWeight;
+                        cheapestEdge[opp] = edge;
+
+                        if(priorityQ.contains(opp)){
+                            priorityQ.decreaseKey(opp, edgeWeight);
+                        } else {
+                            priorityQ.insert(opp, edgeWeight);
+                        }
+                    }
+                }
+            }
+        }
+
+        return MSF;
+    }
+
+    /**
+     * Returns the vertex numbered curr: either the root of the tree or
+     * the end of the edge that brought curr into the tree.
+     */
+    private CS16Vertex<V> endpoint(CS16Edge<V> edge, int curr, CS16Vertex<V> root) {
+        if(edge == null){
+            return root;
+        }
+        if(edge.getVertexOne().getVertexNumber() == curr){
+            return edge.getVertexOne();
+        }
+        return edge.getVertexTwo();
+    }
+}
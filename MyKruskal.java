@@ -0,0 +1,90 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import support.graph.CS16Edge;
+import support.graph.CS16GraphVisualizer;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+import support.graph.MinSpanForest;
+
+/**
+ * In this class I implemented Kruskal's algorithm for generating
+ * Minimum Spanning Forests. The edges are sorted once by weight as
+ * primitive longs and then added cheapest first whenever they join two
+ * different trees, which a union-find over vertex numbers answers in
+ * near-constant time. It handles disconnected graphs without any extra
+ * work, and is a good fit for very sparse graphs and for edges that
+ * are already sorted by weight, in which case the sort is skipped.
+ */
+public class MyKruskal<V> implements MinSpanForest<V> {
+
+    /**
+     * This method implements Kruskal's algorithm. It returns the
+     * collection of edges of the Minimum Spanning Forest (MSF) for
+     * the given graph, g.
+     *
+     * This algorithm runs in O(|E|log(|E|) + |V|) time
+     * @param g Your graph
+     * @param visualizer Not used by this implementation.
+     * @return returns the edges of your MSF along with their total weight
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public MsfResult<V> genMinSpanForest(Graph<V> g, CS16GraphVisualizer<V> visualizer) {
+
+        int numVertices = 0;
+        int maxNumber = 0;
+        Iterator<CS16Vertex<V>> vertexIt = g.vertices();
+        while(vertexIt.hasNext()){
+            maxNumber = Math.max(maxNumber, vertexIt.next().getVertexNumber());
+            numVertices++;
+        }
+
+        // each edge becomes (weight << 32 | index), so sorting the longs
+        // sorts by weight and breaks ties by insertion order
+        CS16Edge<V>[] edges = new CS16Edge[16];
+        long[] sortKeys = new long[16];
+        int numEdges = 0;
+        boolean sorted = true;
+
+        Iterator<CS16Edge<V>> edgeIt = g.edges();
+        while(edgeIt.hasNext()){
+            CS16Edge<V> edge = edgeIt.next();
+            if(numEdges == edges.length){
+                edges = Arrays.copyOf(edges, 2 * numEdges);
+                sortKeys = Arrays.copyOf(sortKeys, 2 * numEdges);
+            }
+
+            edges[numEdges] = edge;
+            sortKeys[numEdges] = ((long) edge.element() << 32) | numEdges;
+            if(numEdges > 0 && sortKeys[numEdges] < sortKeys[numEdges - 1]){
+                sorted = false;
+            }
+            numEdges++;
+        }
+
+        if(!sorted){
+            Arrays.sort(sortKeys, 0, numEdges);
+        }
+
+        UnionFind trees = new UnionFind(maxNumber + 1);
+        MsfResult<V> MSF = new MsfResult<>(numVertices);
+
+        // a forest on |V| vertices has at most |V| - 1 edges
+        for(int k = 0; k < numEdges && MSF.size() < numVertices - 1; k++){
+            CS16Edge<V> edge = edges[(int) sortKeys[k]];
+
+            int i = edge.getVertexOne().getVertexNumber();
+            int j = edge.getVertexTwo().getVertexNumber();
+
+            // only add edges that join two different trees
+            if(trees.union(i, j)){
+                MSF.addEdge(edge);
+            }
+        }
+
+        return MSF;
+    }
+}
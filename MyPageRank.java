@@ -1,13 +1,13 @@
 package graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import support.graph.CS16Edge;
 import support.graph.CS16Vertex;
@@ -19,19 +19,136 @@ import support.graph.PageRank;
  * of the PageRank algorithm. This algorithm will only work on
  * directed graphs.
  *
+ * Every vertex is given a dense int index once, and the incoming
+ * links are copied into primitive arrays (an offset per vertex into
+ * an array of source indices), so each iteration is a plain loop over
+ * double arrays with no graph or map lookups.
+ *
+ * Sinks can be handled in one of two ways. By default every sink
+ * gets an edge to every vertex (itself included), which changes the
+ * graph passed in (except with the GAUSS_SEIDEL solver, which never
+ * needs those edges). If redistributeSinks is set, the graph is left
+ * untouched and the rank held by all sinks is instead spread evenly
+ * over every vertex on each iteration, which gives the same ranks.
+ *
+ * Each new rank only depends on the previous ranks, so an iteration
+ * can be split into vertex ranges that run as ForkJoin tasks on the
+ * common pool (see setParallelism). Every rank is still summed in the
+ * same order, so the results are identical to the sequential ones.
+ *
+ * The config also picks the solver. JACOBI is the power iteration
+ * above. GAUSS_SEIDEL sums every rank from the newest ranks there are,
+ * updating them in place, so it runs on the calling thread whatever the
+ * parallelism. ADAPTIVE stops summing the ranks that have settled, and
+ * EXTRAPOLATION every EXTRAPOLATION_PERIOD iterations jumps to where the
+ * ranks are heading. The last two split their iterations over ranges
+ * just like JACOBI.
+ *
+ * The damping factor, tolerance, iteration cap and the norm the
+ * residual is measured in all come from a PageRankConfig. The loop
+ * stops once the residual over all the vertices is within the
+ * tolerance, and run returns the residual of every iteration.
+ *
+ * If setMetrics is given a GraphMetrics, each run records how long every
+ * phase took (as the timers "MyPageRank.indexVertices" and so on) and the
+ * time of every iteration (as the series "MyPageRank.iteration"). To see
+ * the graph calls inside those phases too, run on a MeteredGraph.
+ *
  */
 public class MyPageRank<V> implements PageRank<V> {
+	// iterations between two extrapolations for the EXTRAPOLATION solver
+	static final int EXTRAPOLATION_PERIOD = 10;
+
 	private Graph<V> _g;
-	private List<CS16Vertex<V>> _vertices;
-	private Map<CS16Vertex<V>, Double> _vertsToRanks;
-	private static final double _dampingFactor = 0.85;
-	private static final int _maxIterations = 100;
-	private static final double _error = 0.01;
+	private CS16Vertex<V>[] _vertices;
+	private int _numVertices;
+	private final PageRankConfig _config;
+	private final double _dampingFactor;
 	private int[] _numOfOutEdges;
+	// whether sinks are handled without adding edges to the graph
+	private boolean _redistributeSinks;
+	// indices of the sink vertices, only used when _redistributeSinks is set
+	private int[] _sinks;
+	// incoming links of vertex v are _inSources[_inOffsets[v] .. _inOffsets[v + 1])
+	private int[] _inOffsets;
+	private int[] _inSources;
 	private double[] _prevRank;
 	private double[] _currRank;
-	private double _iterNum;
-	private boolean _stopConvergence;
+	// rank that each vertex passes along every one of its outgoing edges
+	private double[] _contribution;
+	// number of vertex ranges each iteration is split into
+	private int _parallelism = 1;
+	// range r covers the vertices _rangeStarts[r] .. _rangeStarts[r + 1] - 1
+	private int[] _rangeStarts;
+	// residual of each range in the last iteration, combined in range order
+	private double[] _rangeResiduals;
+	// where phase and iteration times go, or null to not record them
+	private GraphMetrics _metrics;
+	// vertices whose rank has settled, only used by the ADAPTIVE solver
+	private boolean[] _frozen;
+	// what the ranks sum to, as the GAUSS_SEIDEL solver doesn't keep it at 1
+	private double _rankSum;
+	// the ranks three and two iterations before the next extrapolation
+	private double[] _ranksBack3;
+	private double[] _ranksBack2;
+
+	/**
+	 * Constructor for a PageRank that handles sinks by adding edges
+	 * from every sink to every vertex.
+	 */
+	public MyPageRank() {
+		this(false);
+	}
+
+	/**
+	 * Constructor for a PageRank that chooses how sinks are handled.
+	 *
+	 * @param redistributeSinks true to spread the rank of the sinks
+	 *        over all vertices instead of adding edges to the graph
+	 */
+	public MyPageRank(boolean redistributeSinks) {
+		this(new PageRankConfig(), redistributeSinks);
+	}
+
+	/**
+	 * Constructor for a PageRank with custom settings.
+	 *
+	 * @param config the damping factor, tolerance, iteration cap and norm
+	 * @param redistributeSinks true to spread the rank of the sinks
+	 *        over all vertices instead of adding edges to the graph
+	 */
+	public MyPageRank(PageRankConfig config, boolean redistributeSinks) {
+		if (config == null) {
+			throw new IllegalArgumentException("Config is null.");
+		}
+		_config = config;
+		_dampingFactor = config.getDampingFactor();
+		_redistributeSinks = redistributeSinks;
+	}
+
+	/**
+	 * Sets how many ForkJoin tasks each iteration is split into. A
+	 * parallelism of 1 (the default) runs everything on the calling
+	 * thread; anything higher runs the tasks on the common pool.
+	 *
+	 * @param parallelism the number of tasks per iteration, at least 1
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
+		}
+		_parallelism = parallelism;
+	}
+
+	/**
+	 * Sets the metrics every run records its phase and iteration times
+	 * into, or turns recording off with null (the default).
+	 *
+	 * @param metrics the metrics to record into, or null
+	 */
+	public void setMetrics(GraphMetrics metrics) {
+		_metrics = metrics;
+	}
 
 	/**
 	 * The main method that does the calculations
@@ -40,53 +157,146 @@ public class MyPageRank<V> implements PageRank<V> {
 	 */
 	@Override
 	public Map<CS16Vertex<V>, Double> calcPageRank(Graph<V> g) {
+		return this.run(g).getRanks();
+	}
+
+	/**
+	 * Does the same calculations as calcPageRank, but also returns how
+	 * many iterations were run and the residual of each one.
+	 *
+	 * @return the ranks along with the residual of every iteration
+	 */
+	public PageRankResult<V> run(Graph<V> g) {
 		_g = g;
-		_vertices = new ArrayList<>();
-		_vertsToRanks = new HashMap<>();
-		_numOfOutEdges = new int[g.getNumVertices()];
-		_prevRank = new double[g.getNumVertices()];
-		_currRank = new double[g.getNumVertices()];
-		_iterNum = 0;
-		_stopConvergence = false;
-
-		// iterating through vertices to add them to _vertices
-		// and initialize _numOfOutEdges and _currRank
-		Iterator<CS16Vertex<V>> it = g.vertices();
-		while (it.hasNext()) {
-			CS16Vertex<V> vertex = it.next();
+		long runStart = this.now();
+
+		// give every vertex its dense index and count its outgoing edges
+		int[] indexOf = this.indexVertices();
+		long time = this.endPhase("indexVertices", runStart);
 
-			_vertices.add(vertex);
-			_numOfOutEdges[_vertices.indexOf(vertex)] = g.numOutgoingEdges(vertex);
-			_currRank[_vertices.indexOf(vertex)] = 1.0 / g.getNumVertices();
+		_numOfOutEdges = new int[_numVertices];
+		for (int v = 0; v < _numVertices; v++) {
+			_numOfOutEdges[v] = g.numOutgoingEdges(_vertices[v]);
 		}
+		time = this.endPhase("countOutEdges", time);
 
-		// use the adding edges method to handle sinks
-		this.handleSinks();
+		// either add edges to handle sinks or remember them for later; the
+		// GAUSS_SEIDEL solver leaves the rank of the sinks out (see sweepRanks),
+		// so it never adds sink edges
+		PageRankConfig.Solver solver = _config.getSolver();
+		boolean linkSinks = !_redistributeSinks && solver != PageRankConfig.Solver.GAUSS_SEIDEL;
+		if (linkSinks) {
+			this.handleSinks();
+			time = this.endPhase("handleSinks", time);
+		} else {
+			this.findSinks();
+			time = this.endPhase("findSinks", time);
+		}
+
+		// any sink edges that are in the graph now get copied too
+		this.buildInLinks(indexOf);
+		this.splitRanges();
+		time = this.endPhase("buildInLinks", time);
+
+		_prevRank = new double[_numVertices];
+		_currRank = new double[_numVertices];
+		_contribution = new double[_numVertices];
+		Arrays.fill(_currRank, 1.0 / _numVertices);
+		_frozen = solver == PageRankConfig.Solver.ADAPTIVE ? new boolean[_numVertices] : null;
+		if (solver == PageRankConfig.Solver.EXTRAPOLATION) {
+			_ranksBack3 = new double[_numVertices];
+			_ranksBack2 = new double[_numVertices];
+		}
+		_rankSum = 1.0;
+
+		double[] residuals = new double[_config.getMaxIterations()];
+		time = this.endPhase("initRanks", time);
+		int iterNum = 0;
+		boolean converged = false;
 
 		// main loop
-		while(!_stopConvergence && _iterNum <= _maxIterations) {
+		while(!converged && iterNum < _config.getMaxIterations()) {
 
-			_iterNum++; // new iteration of this algorithm
+			// making _currRank the previous rank
+			this.updatePrevRank();
 
-			// only updating _stopConvergence if _iterNum > 1
-			// b/c _prevRank is empty for the first iteration until it gets updated
-			if(_iterNum > 1){
-				_stopConvergence = this.stopConvergence(); // updating the boolean variable
+			// updating currentRank, which also measures how much it changed
+			residuals[iterNum] = this.updateRank();
+			converged = residuals[iterNum] <= _config.getTolerance();
+			if (!converged && solver == PageRankConfig.Solver.EXTRAPOLATION) {
+				this.extrapolate(iterNum + 1);
 			}
 
-			// cloning _currRank into _prevRank and setting currentRank to all 0.0s
-			this.updatePrevRank();
+			if (_metrics != null) {
+				long now = System.nanoTime();
+				_metrics.recordIteration("MyPageRank.iteration", now - time);
+				time = now;
+			}
 
-			// updating currentRank
-			this.updateRank();
+			iterNum++; // finished another iteration of this algorithm
 		}
 
 		// putting all current ranks in the hashMap that is returned by this method
-		for (CS16Vertex<V> v : _vertices) {
-			_vertsToRanks.put(v, _currRank[_vertices.indexOf(v)]);
+		Map<CS16Vertex<V>, Double> vertsToRanks = new HashMap<>(2 * _numVertices);
+		for (int v = 0; v < _numVertices; v++) {
+			vertsToRanks.put(_vertices[v], _currRank[v] / _rankSum);
+		}
+		this.endPhase("collectRanks", time);
+		this.endPhase("run", runStart);
+
+		return new PageRankResult<>(vertsToRanks, Arrays.copyOf(residuals, iterNum), converged);
+	}
+
+	/**
+	 * Method used to read the clock, only when metrics are recorded.
+	 */
+	private long now() {
+		return _metrics == null ? 0 : System.nanoTime();
+	}
+
+	/**
+	 * Method used to record a phase that started at start, if metrics
+	 * are recorded.
+	 *
+	 * @return the time the next phase starts at
+	 */
+	private long endPhase(String phase, long start) {
+		if (_metrics == null) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		_metrics.record("MyPageRank." + phase, now - start);
+		return now;
+	}
+
+	/**
+	 * Method used to give every vertex of the graph a dense index
+	 * from 0 to |V| - 1.
+	 *
+	 * @return an array mapping each vertex number to its index
+	 */
+	@SuppressWarnings("unchecked")
+	private int[] indexVertices() {
+		_vertices = new CS16Vertex[Math.max(16, _g.getNumVertices())];
+		_numVertices = 0;
+		int maxNumber = 0;
+
+		Iterator<CS16Vertex<V>> it = _g.vertices();
+		while (it.hasNext()) {
+			CS16Vertex<V> vertex = it.next();
+
+			if (_numVertices == _vertices.length) {
+				_vertices = Arrays.copyOf(_vertices, 2 * _numVertices);
+			}
+			_vertices[_numVertices++] = vertex;
+			maxNumber = Math.max(maxNumber, vertex.getVertexNumber());
 		}
 
-		return _vertsToRanks;
+		int[] indexOf = new int[maxNumber + 1];
+		for (int v = 0; v < _numVertices; v++) {
+			indexOf[_vertices[v].getVertexNumber()] = v;
+		}
+		return indexOf;
 	}
 
 	/**
@@ -96,73 +306,359 @@ public class MyPageRank<V> implements PageRank<V> {
 	private void handleSinks() {
 
 		// iterating through all vertices
-		for (CS16Vertex<V> v : _vertices) {
+		for (int v = 0; v < _numVertices; v++) {
 
-			if (_numOfOutEdges[_vertices.indexOf(v)] == 0) {
+			if (_numOfOutEdges[v] == 0) {
 
-				for (CS16Vertex<V> u : _vertices) {
-						_g.insertEdge(v, u, 1);
+				for (int u = 0; u < _numVertices; u++) {
+					_g.insertEdge(_vertices[v], _vertices[u], 1);
 
-						// updating the sink's number of outgoing edges
-						_numOfOutEdges[_vertices.indexOf(v)] += 1;
+					// updating the sink's number of outgoing edges
+					_numOfOutEdges[v] += 1;
 				}
 			}
 		}
 	}
 
 	/**
-	 * Method used to check if convergence should be stopped.
+	 * Method used to record the sinks without changing the graph.
+	 */
+	private void findSinks() {
+		int numSinks = 0;
+		for (int v = 0; v < _numVertices; v++) {
+			if (_numOfOutEdges[v] == 0) {
+				numSinks++;
+			}
+		}
+
+		_sinks = new int[numSinks];
+		numSinks = 0;
+		for (int v = 0; v < _numVertices; v++) {
+			if (_numOfOutEdges[v] == 0) {
+				_sinks[numSinks++] = v;
+			}
+		}
+	}
+
+	/**
+	 * Method used to copy the incoming links of every vertex into
+	 * _inOffsets and _inSources.
 	 */
-	private boolean stopConvergence() {
+	private void buildInLinks(int[] indexOf) {
+		_inOffsets = new int[_numVertices + 1];
+		_inSources = new int[Math.max(16, _numVertices)];
+		int numLinks = 0;
 
-		// iterating through all vertices
-		for (CS16Vertex<V> v : _vertices) {
-			double previousRank = _prevRank[_vertices.indexOf(v)];
-			double currentRank = _currRank[_vertices.indexOf(v)];
+		for (int v = 0; v < _numVertices; v++) {
+			_inOffsets[v] = numLinks;
 
-			// absolute value must be taken
-			if (Math.abs(previousRank - currentRank) <= _error) {
-				return true;
+			Iterator<CS16Edge<V>> it = _g.incomingEdges(_vertices[v]);
+			while (it.hasNext()) {
+				CS16Edge<V> edge = it.next();
+
+				// page that links to page v (with an incoming edge)
+				CS16Vertex<V> u = _g.opposite(_vertices[v], edge);
+
+				if (numLinks == _inSources.length) {
+					_inSources = Arrays.copyOf(_inSources, 2 * numLinks);
+				}
+				_inSources[numLinks++] = indexOf[u.getVertexNumber()];
+			}
+		}
+		_inOffsets[_numVertices] = numLinks;
+	}
+
+	/**
+	 * Method used to split the vertices into _parallelism contiguous
+	 * ranges holding roughly the same number of vertices plus incoming
+	 * links, so one range full of popular pages doesn't hold up the rest.
+	 */
+	private void splitRanges() {
+		int numRanges = Math.max(1, Math.min(_parallelism, _numVertices));
+		long work = (long) _numVertices + _inOffsets[_numVertices];
+
+		_rangeStarts = new int[numRanges + 1];
+		int v = 0;
+		for (int r = 1; r < numRanges; r++) {
+			long target = work * r / numRanges;
+			while (v < _numVertices && (long) v + _inOffsets[v] < target) {
+				v++;
 			}
+			_rangeStarts[r] = v;
 		}
-		return false;
+		_rangeStarts[numRanges] = _numVertices;
+		_rangeResiduals = new double[numRanges];
 	}
 
 	/**
 	 * Method used to update the current rank of all the vertices
 	 * based on the page rank formula.
+	 *
+	 * @return the residual between the previous and current ranks
 	 */
-	private void updateRank() {
+	private double updateRank() {
 
-		for (CS16Vertex<V> v : _vertices) {
+		double teleport = (1 - _dampingFactor) / _numVertices;
+		if (_config.getSolver() == PageRankConfig.Solver.GAUSS_SEIDEL) {
+			this.updateContributions(0, _numVertices);
+			return this.sweepRanks(teleport);
+		}
 
-			double PR = (1 - _dampingFactor) / (_g.getNumVertices());
+		// a sink links to every vertex, so its rank reaches each of them equally
+		if (_redistributeSinks) {
+			double danglingRank = 0.0;
+			for (int s : _sinks) {
+				danglingRank += _prevRank[s];
+			}
+			teleport += _dampingFactor * (danglingRank / _numVertices);
+		}
 
-			Iterator<CS16Edge<V>> it = _g.incomingEdges(v);
-			while (it.hasNext()) {
-				CS16Edge<V> edge = it.next();
+		int numRanges = _rangeStarts.length - 1;
+		if (numRanges == 1) {
+			this.updateContributions(0, _numVertices);
+			return this.updateRanks(0, _numVertices, teleport);
+		}
 
-				// page that links to page v (with an incoming edge)
-				CS16Vertex<V> u = _g.opposite(v, edge);
+		// every contribution has to be ready before any rank is summed
+		List<RankTask> tasks = new ArrayList<>(numRanges);
+		for (int r = 0; r < numRanges; r++) {
+			tasks.add(new RankTask(r, true, teleport));
+		}
+		ForkJoinTask.invokeAll(tasks);
 
-				int uIndex = _vertices.indexOf(u);
-				PR += _dampingFactor * (_prevRank[uIndex] / _numOfOutEdges[uIndex]);
+		tasks.clear();
+		for (int r = 0; r < numRanges; r++) {
+			tasks.add(new RankTask(r, false, teleport));
+		}
+		ForkJoinTask.invokeAll(tasks);
+
+		// combining the ranges in order keeps the residual deterministic
+		double residual = 0.0;
+		for (int r = 0; r < numRanges; r++) {
+			residual = this.combineResiduals(residual, _rangeResiduals[r]);
+		}
+		return residual;
+	}
+
+	/**
+	 * Method used to work out the rank each vertex in [from, to)
+	 * passes along every one of its outgoing edges.
+	 */
+	private void updateContributions(int from, int to) {
+		for (int u = from; u < to; u++) {
+			_contribution[u] = _dampingFactor * (_prevRank[u] / _numOfOutEdges[u]);
+		}
+	}
+
+	/**
+	 * Method used to sum the new rank of each vertex in [from, to).
+	 *
+	 * @return the residual of the range
+	 */
+	private double updateRanks(int from, int to, double teleport) {
+		if (_frozen != null) {
+			return this.updateUnfrozenRanks(from, to, teleport);
+		}
+		double residual = 0.0;
+		for (int v = from; v < to; v++) {
+
+			double PR = teleport;
+			for (int k = _inOffsets[v]; k < _inOffsets[v + 1]; k++) {
+				PR += _contribution[_inSources[k]];
 			}
 
-			_currRank[_vertices.indexOf(v)] = PR;
+			_currRank[v] = PR;
+
+			// absolute value must be taken
+			residual = this.combineResiduals(residual, Math.abs(PR - _prevRank[v]));
 		}
+		return residual;
 	}
 
 	/**
-	 * Method used to clone the current rank all into
-	 * the previous rank and also update current rank to all 0.0s.
+	 * Method used by the ADAPTIVE solver to sum the new rank of each
+	 * vertex in [from, to) that hasn't settled yet. A vertex settles, and
+	 * keeps its rank from then on, once its rank changes by no more than
+	 * (1 - d) times the tolerance times its rank: the changes still to
+	 * come shrink by about d each, so together they come to about the
+	 * tolerance times the rank.
+	 *
+	 * @return the residual of the range
+	 */
+	private double updateUnfrozenRanks(int from, int to, double teleport) {
+		double settled = _config.getTolerance() * (1 - _dampingFactor);
+		double residual = 0.0;
+		for (int v = from; v < to; v++) {
+			if (_frozen[v]) {
+				_currRank[v] = _prevRank[v];
+				continue;
+			}
+
+			double PR = teleport;
+			for (int k = _inOffsets[v]; k < _inOffsets[v + 1]; k++) {
+				PR += _contribution[_inSources[k]];
+			}
+
+			_currRank[v] = PR;
+
+			double change = Math.abs(PR - _prevRank[v]);
+			_frozen[v] = change <= settled * PR;
+			residual = this.combineResiduals(residual, change);
+		}
+		return residual;
+	}
+
+	/**
+	 * Method used by the GAUSS_SEIDEL solver to sum the new rank of every
+	 * vertex in order, each from the newest ranks: the contribution of a
+	 * vertex is updated as soon as its rank is, so every vertex after it
+	 * already sees the new rank in this same sweep.
+	 *
+	 * The rank of the sinks is left out: spreading it from ranks of the
+	 * last sweep would hold every sweep back by one. The ranks then solve
+	 * the same equations without it, and only differ from the real ranks
+	 * by a factor, so they are divided by what they sum to before they are
+	 * compared or returned.
+	 *
+	 * @return the residual between the previous and current ranks
+	 */
+	private double sweepRanks(double teleport) {
+		double rankSum = 0.0;
+		for (int v = 0; v < _numVertices; v++) {
+
+			double PR = teleport;
+			for (int k = _inOffsets[v]; k < _inOffsets[v + 1]; k++) {
+				PR += _contribution[_inSources[k]];
+			}
+
+			_currRank[v] = PR;
+			rankSum += PR;
+			_contribution[v] = _dampingFactor * (PR / _numOfOutEdges[v]);
+		}
+
+		double residual = 0.0;
+		for (int v = 0; v < _numVertices; v++) {
+			residual = this.combineResiduals(residual, Math.abs(_currRank[v] / rankSum - _prevRank[v] / _rankSum));
+		}
+		_rankSum = rankSum;
+		return residual;
+	}
+
+	/**
+	 * Method used by the EXTRAPOLATION solver after iteration k, which
+	 * keeps the ranks of iterations k - 3 and k - 2 before every
+	 * extrapolation and then extrapolates quadratically (Kamvar et al.,
+	 * "Extrapolation Methods for Accelerating PageRank Computations").
+	 *
+	 * After a few iterations the error is mostly made of the two parts
+	 * that shrink the slowest, so x_(k-3) .. x_k are taken to be the ranks
+	 * plus those two parts, shrinking by their own factors every iteration.
+	 * The factors are found by least squares over the three changes since
+	 * x_(k-3), and the mix of x_(k-2), x_(k-1) and x_k that cancels both
+	 * parts, scaled to sum to 1, becomes the new ranks.
+	 */
+	private void extrapolate(int k) {
+		if (k % EXTRAPOLATION_PERIOD == EXTRAPOLATION_PERIOD - 3) {
+			System.arraycopy(_currRank, 0, _ranksBack3, 0, _numVertices);
+			return;
+		}
+		if (k % EXTRAPOLATION_PERIOD == EXTRAPOLATION_PERIOD - 2) {
+			System.arraycopy(_currRank, 0, _ranksBack2, 0, _numVertices);
+			return;
+		}
+		if (k % EXTRAPOLATION_PERIOD != 0) {
+			return;
+		}
+
+		// least squares for g1, g2 in g1 y2 + g2 y1 = -y0, where y2, y1 and y0
+		// are x_(k-2), x_(k-1) and x_k minus x_(k-3)
+		double a11 = 0.0;
+		double a12 = 0.0;
+		double a22 = 0.0;
+		double b1 = 0.0;
+		double b2 = 0.0;
+		for (int v = 0; v < _numVertices; v++) {
+			double y2 = _ranksBack2[v] - _ranksBack3[v];
+			double y1 = _prevRank[v] - _ranksBack3[v];
+			double y0 = _currRank[v] - _ranksBack3[v];
+			a11 += y2 * y2;
+			a12 += y2 * y1;
+			a22 += y1 * y1;
+			b1 -= y2 * y0;
+			b2 -= y1 * y0;
+		}
+		double det = a11 * a22 - a12 * a12;
+		if (!(Math.abs(det) > 1e-12 * a11 * a22)) {
+			return;
+		}
+		double g1 = (b1 * a22 - b2 * a12) / det;
+		double g2 = (a11 * b2 - a12 * b1) / det;
+
+		// the new ranks are beta0 x_(k-2) + beta1 x_(k-1) + x_k, scaled
+		double beta0 = g1 + g2 + 1;
+		double beta1 = g2 + 1;
+		double sum = 0.0;
+		for (int v = 0; v < _numVertices; v++) {
+			sum += beta0 * _ranksBack2[v] + beta1 * _prevRank[v] + _currRank[v];
+		}
+		if (!(sum > 0)) {
+			return;
+		}
+		for (int v = 0; v < _numVertices; v++) {
+			_currRank[v] = (beta0 * _ranksBack2[v] + beta1 * _prevRank[v] + _currRank[v]) / sum;
+		}
+	}
+
+	/**
+	 * Method used to fold one more change into a residual, in the
+	 * configured norm.
+	 */
+	private double combineResiduals(double residual, double change) {
+		if (_config.getNorm() == PageRankConfig.Norm.L1) {
+			return residual + change;
+		}
+		return Math.max(residual, change);
+	}
+
+	/**
+	 * Method used to make the current rank the previous rank. The
+	 * two arrays are swapped rather than copied, since updateRank
+	 * overwrites every entry of _currRank anyway.
 	 */
 	private void updatePrevRank(){
-		for (CS16Vertex<V> v : _vertices) {
-			_prevRank[_vertices.indexOf(v)] = _currRank[_vertices.indexOf(v)];
+		double[] temp = _prevRank;
+		_prevRank = _currRank;
+		_currRank = temp;
+	}
+
+	/**
+	 * One vertex range of one phase of an iteration.
+	 */
+	private class RankTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
 
-			// resetting _currRank to be 0 for all vertices
-			_currRank[_vertices.indexOf(v)] = 0.0;
+		private final int _from;
+		private final int _to;
+		private final boolean _contributions;
+		private final double _teleport;
+
+		private final int _range;
+
+		RankTask(int range, boolean contributions, double teleport) {
+			_range = range;
+			_from = _rangeStarts[range];
+			_to = _rangeStarts[range + 1];
+			_contributions = contributions;
+			_teleport = teleport;
+		}
+
+		@Override
+		protected void compute() {
+			if (_contributions) {
+				updateContributions(_from, _to);
+			} else {
+				_rangeResiduals[_range] = updateRanks(_from, _to, _teleport);
+			}
 		}
 	}
 }
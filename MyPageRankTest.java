@@ -9,6 +9,7 @@ import support.graph.CS16Vertex;
 import support.graph.Graph;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Random;
 
 /**
  * This class tests the functionality of your PageRank algorithm on a
@@ -373,4 +374,219 @@ public class MyPageRankTest {
 		// checking if all ranks sum to 1
 		assertEquals(total, 1, _epsilon);
 	}
+
+	/**
+	 * Checking that redistributing the rank of the sinks gives the
+	 * same ranks as adding edges, without adding any edges to the graph.
+	 */
+	@Test
+	public void testRedistributeSinksGraph() {
+		Graph<String> adjMatrix = new AdjacencyMatrixGraph<String>(true);
+		CS16Vertex<String> a = adjMatrix.insertVertex("A");
+		CS16Vertex<String> b = adjMatrix.insertVertex("B");
+		CS16Vertex<String> c = adjMatrix.insertVertex("C");
+		CS16Vertex<String> d = adjMatrix.insertVertex("D");
+
+		CS16Edge<String> e0 = adjMatrix.insertEdge(a, b, null);
+		CS16Edge<String> e1 = adjMatrix.insertEdge(b, c, null);
+		CS16Edge<String> e2 = adjMatrix.insertEdge(b, d, null);
+
+		MyPageRank<String> pr = new MyPageRank<String>(true);
+
+		Map<CS16Vertex<String>, Double> output = pr.calcPageRank(adjMatrix);
+
+		// c and d are still sinks, so nothing was added to the graph
+		assertEquals(adjMatrix.numOutgoingEdges(c), 0);
+		assertEquals(adjMatrix.numOutgoingEdges(d), 0);
+
+		// running it again on the same graph gives the same ranks
+		Map<CS16Vertex<String>, Double> again = pr.calcPageRank(adjMatrix);
+		assertEquals(output, again);
+
+		// comparing with the adding edges method
+		Map<CS16Vertex<String>, Double> expected = new MyPageRank<String>().calcPageRank(adjMatrix);
+
+		assertEquals(output.size(), 4);
+		assertEquals(expected.get(a), output.get(a), 1e-9);
+		assertEquals(expected.get(b), output.get(b), 1e-9);
+		assertEquals(expected.get(c), output.get(c), 1e-9);
+		assertEquals(expected.get(d), output.get(d), 1e-9);
+	}
+
+	/**
+	 * Checking that splitting each iteration into parallel tasks gives
+	 * exactly the same ranks as running it on one thread.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testParallelMatchesSequential() {
+		Graph<String> adjMatrix = new AdjacencyMatrixGraph<String>(true);
+		CS16Vertex<String>[] vertices = new CS16Vertex[40];
+		for (int i = 0; i < vertices.length; i++) {
+			vertices[i] = adjMatrix.insertVertex("V" + i);
+		}
+
+		Random random = new Random(16);
+		for (int i = 0; i < 150; i++) {
+			adjMatrix.insertEdge(vertices[random.nextInt(40)], vertices[random.nextInt(40)], null);
+		}
+
+		MyPageRank<String> sequential = new MyPageRank<String>(true);
+		MyPageRank<String> parallel = new MyPageRank<String>(true);
+		parallel.setParallelism(4);
+
+		// the ranks should be equal, not just within epsilon
+		assertEquals(sequential.calcPageRank(adjMatrix), parallel.calcPageRank(adjMatrix));
+	}
+
+	/**
+	 * Checking that the ranks only converge once every vertex has settled,
+	 * and that the residual of every iteration is reported.
+	 */
+	@Test
+	public void testConvergenceResiduals() {
+		Graph<String> adjMatrix = new AdjacencyMatrixGraph<String>(true);
+		CS16Vertex<String> a = adjMatrix.insertVertex("A");
+		CS16Vertex<String> b = adjMatrix.insertVertex("B");
+		CS16Vertex<String> c = adjMatrix.insertVertex("C");
+		adjMatrix.insertEdge(a, b, null);
+		adjMatrix.insertEdge(b, c, null);
+
+		PageRankConfig config = new PageRankConfig(0.85, 1e-10, 1000, PageRankConfig.Norm.L_INFINITY);
+		PageRankResult<String> result = new MyPageRank<String>(config, true).run(adjMatrix);
+
+		assertTrue(result.hasConverged());
+		assertTrue(result.getNumIterations() > 2);
+		assertEquals(result.getResiduals().length, result.getNumIterations());
+		assertTrue(result.getResidual(result.getNumIterations()) <= 1e-10);
+		assertTrue(result.getResidual(result.getNumIterations() - 1) > 1e-10);
+
+		// the same graph as simpleTestOne, now solved much more tightly
+		assertEquals(0.18442, result.getRanks().get(a), 0.00001);
+		assertEquals(0.34117, result.getRanks().get(b), 0.00001);
+		assertEquals(0.47441, result.getRanks().get(c), 0.00001);
+	}
+
+	/**
+	 * Checking that the iteration cap is respected.
+	 */
+	@Test
+	public void testMaxIterations() {
+		Graph<String> adjMatrix = new AdjacencyMatrixGraph<String>(true);
+		CS16Vertex<String> a = adjMatrix.insertVertex("A");
+		CS16Vertex<String> b = adjMatrix.insertVertex("B");
+		CS16Vertex<String> c = adjMatrix.insertVertex("C");
+		adjMatrix.insertEdge(a, b, null);
+		adjMatrix.insertEdge(b, c, null);
+
+		PageRankConfig config = new PageRankConfig(0.85, 0.0, 3, PageRankConfig.Norm.L1);
+		PageRankResult<String> result = new MyPageRank<String>(config, true).run(adjMatrix);
+
+		assertFalse(result.hasConverged());
+		assertEquals(result.getNumIterations(), 3);
+	}
+
+	/**
+	 * Runs the given solver on a fresh web-like graph, where every page
+	 * links to three older ones and the first pages are sinks.
+	 */
+	private static PageRankResult<String> runSolver(PageRankConfig.Solver solver, boolean redistributeSinks,
+			double tolerance, int parallelism) {
+		Graph<String> graph = new CsrGraph<String>(true);
+		GraphGenerator.barabasiAlbert(2000, 3, 3).generateInto(graph);
+		PageRankConfig config = new PageRankConfig(0.85, tolerance, 1000, PageRankConfig.Norm.L1, solver);
+		MyPageRank<String> pr = new MyPageRank<String>(config, redistributeSinks);
+		pr.setParallelism(parallelism);
+		return pr.run(graph);
+	}
+
+	/**
+	 * Checking that every solver gives the same ranks as power
+	 * iteration, with either way of handling sinks.
+	 */
+	@Test
+	public void testSolversMatchJacobi() {
+		for (boolean redistributeSinks : new boolean[] {false, true}) {
+			double[] expected = rankArray(runSolver(PageRankConfig.Solver.JACOBI, redistributeSinks, 1e-12, 1));
+
+			for (PageRankConfig.Solver solver : PageRankConfig.Solver.values()) {
+				PageRankResult<String> result = runSolver(solver, redistributeSinks, 1e-9, 1);
+				assertTrue(result.hasConverged());
+
+				double[] ranks = rankArray(result);
+				double total = 0;
+				double error = 0;
+				for (int v = 0; v < ranks.length; v++) {
+					total += ranks[v];
+					error += Math.abs(ranks[v] - expected[v]);
+				}
+				assertEquals(solver.toString(), 1, total, 1e-7);
+				assertEquals(solver.toString(), 0, error, 1e-7);
+			}
+		}
+	}
+
+	/**
+	 * Checking that the Gauss-Seidel and extrapolation solvers converge
+	 * in fewer iterations than power iteration.
+	 */
+	@Test
+	public void testSolversTakeFewerIterations() {
+		int jacobi = runSolver(PageRankConfig.Solver.JACOBI, true, 1e-8, 1).getNumIterations();
+		int gaussSeidel = runSolver(PageRankConfig.Solver.GAUSS_SEIDEL, true, 1e-8, 1).getNumIterations();
+		int extrapolation = runSolver(PageRankConfig.Solver.EXTRAPOLATION, true, 1e-8, 1).getNumIterations();
+
+		assertTrue(gaussSeidel + " vs " + jacobi, gaussSeidel < jacobi * 3 / 4);
+		assertTrue(extrapolation + " vs " + jacobi, extrapolation < jacobi);
+	}
+
+	/**
+	 * Checking that the Gauss-Seidel solver leaves the graph as it was,
+	 * even with the default sink handling, and still gets the ranks.
+	 */
+	@Test
+	public void testGaussSeidelLeavesGraph() {
+		Graph<String> adjMatrix = new AdjacencyMatrixGraph<String>(true);
+		CS16Vertex<String> a = adjMatrix.insertVertex("A");
+		CS16Vertex<String> b = adjMatrix.insertVertex("B");
+		CS16Vertex<String> c = adjMatrix.insertVertex("C");
+		adjMatrix.insertEdge(a, b, null);
+		adjMatrix.insertEdge(b, c, null);
+
+		PageRankConfig config = new PageRankConfig(0.85, 1e-10, 1000, PageRankConfig.Norm.L_INFINITY,
+				PageRankConfig.Solver.GAUSS_SEIDEL);
+		Map<CS16Vertex<String>, Double> output = new MyPageRank<String>(config, false).calcPageRank(adjMatrix);
+
+		assertEquals(0, adjMatrix.numOutgoingEdges(c));
+		assertEquals(0.18442, output.get(a), 0.00001);
+		assertEquals(0.34117, output.get(b), 0.00001);
+		assertEquals(0.47441, output.get(c), 0.00001);
+	}
+
+	/**
+	 * Checking that the solvers that split their iterations into parallel
+	 * tasks still give exactly the same ranks as on one thread.
+	 */
+	@Test
+	public void testParallelSolversMatchSequential() {
+		for (PageRankConfig.Solver solver : PageRankConfig.Solver.values()) {
+			PageRankResult<String> sequential = runSolver(solver, true, 1e-9, 1);
+			PageRankResult<String> parallel = runSolver(solver, true, 1e-9, 4);
+
+			assertEquals(solver.toString(), sequential.getNumIterations(), parallel.getNumIterations());
+			assertArrayEquals(solver.toString(), rankArray(sequential), rankArray(parallel), 0);
+		}
+	}
+
+	/**
+	 * Returns the ranks ordered by vertex number, since the vertices of
+	 * two separately built graphs are not equal to each other.
+	 */
+	private static double[] rankArray(PageRankResult<String> result) {
+		double[] ranks = new double[result.getRanks().size()];
+		for (Map.Entry<CS16Vertex<String>, Double> entry : result.getRanks().entrySet()) {
+			ranks[entry.getKey().getVertexNumber()] = entry.getValue();
+		}
+		return ranks;
+	}
 }
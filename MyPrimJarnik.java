@@ -13,9 +13,25 @@ import support.graph.MinSpanForest;
 /**
  * In this class I implemented a slightly modified version
  * of the Prim-Jarnik algorithm for generating Minimum Spanning trees.
+ *
+ * If setMetrics is given a GraphMetrics, each run records how long its
+ * phases took (as the timers "MyPrimJarnik.initialize", "mainLoop" and
+ * "run") and how long each vertex taken from the queue took to process
+ * (as the timer "MyPrimJarnik.iteration").
  */
 public class MyPrimJarnik<V> implements MinSpanForest<V> {
 
+    // where phase and iteration times go, or null to not record them
+    private GraphMetrics _metrics;
+
+    /**
+     * Sets the metrics every run records its phase and iteration times
+     * into, or turns recording off with null (the default).
+     */
+    public void setMetrics(GraphMetrics metrics) {
+        _metrics = metrics;
+    }
+
     /**
      * This method implements Prim-Jarnik's algorithm and extends 
      * it slightly to account for disconnected graphs. It returns
@@ -25,16 +41,19 @@ public class MyPrimJarnik<V> implements MinSpanForest<V> {
      * This algorithm runs in O((|E| + |V|)log(|V|)) time
      * @param g Your graph
      * @param visualizer Only used if you implement the optional animation.
-     * @return returns a data structure that contains the edges of your MSF that implements java.util.Collection
+     * @return returns the edges of your MSF along with their total weight
      */
     @Override
-    public Collection<CS16Edge<V>> genMinSpanForest(Graph<V> g, CS16GraphVisualizer<V> visualizer) {
+    public MsfResult<V> genMinSpanForest(Graph<V> g, CS16GraphVisualizer<V> visualizer) {
+        GraphMetrics metrics = _metrics;
+        long runStart = metrics == null ? 0 : System.nanoTime();
 
-        // decorators
-        MyDecorator<CS16Vertex<V>,Integer> costDec = new MyDecorator<>();
-        MyDecorator<CS16Vertex<V>,CS16Vertex<V>> prevDec = new MyDecorator<>();
-        MyDecorator<CS16Vertex<V>, Boolean> visitedDec = new MyDecorator<>();
-        MyDecorator<CS16Vertex<V>,  Entry<Integer,CS16Vertex<V>>> entryDec = new MyDecorator<>();
+        // decorators, kept in arrays indexed by vertex number so that
+        // costs and visited flags are never hashed or boxed
+        IntVertexDecorator<V> costDec = new IntVertexDecorator<>();
+        VertexDecorator<V,CS16Edge<V>> edgeDec = new VertexDecorator<>();
+        BooleanVertexDecorator<V> visitedDec = new BooleanVertexDecorator<>();
+        VertexDecorator<V,  Entry<Integer,CS16Vertex<V>>> entryDec = new VertexDecorator<>();
 
         // PQ
         CS16AdaptableHeapPriorityQueue<Integer, CS16Vertex<V>> priorityQ = new CS16AdaptableHeapPriorityQueue<>();
@@ -57,10 +76,10 @@ public class MyPrimJarnik<V> implements MinSpanForest<V> {
                 priorityKey = Integer.MAX_VALUE;
             }
 
-            costDec.setDecoration(vertex, priorityKey);
+            costDec.setInt(vertex, priorityKey);
 
-            // prev is null for all nodes at first
-            prevDec.setDecoration(vertex, null);
+            // no edge has reached any node at first
+            edgeDec.setDecoration(vertex, null);
 
             // insert the vertex into a priority queue with the key above
             // store the entry as a decoration for later use
@@ -68,29 +87,37 @@ public class MyPrimJarnik<V> implements MinSpanForest<V> {
             entryDec.setDecoration(vertex, entry);
 
             // all nodes are unvisited at first
-            visitedDec.setDecoration(vertex, false);
+            visitedDec.setBoolean(vertex, false);
         }
 
-        // using a hashset for the MSF
-        Collection<CS16Edge<V>> MSF = new HashSet<>();
+        // a forest on |V| vertices has at most |V| - 1 edges
+        MsfResult<V> MSF = new MsfResult<>(g.getNumVertices());
+
+        GraphMetrics.Timer iterationTimer = null;
+        long loopStart = 0;
+        if(metrics != null){
+            loopStart = System.nanoTime();
+            metrics.record("MyPrimJarnik.initialize", loopStart - runStart);
+            iterationTimer = metrics.timer("MyPrimJarnik.iteration");
+        }
 
         while(!priorityQ.isEmpty()) {
+            long iterationStart = metrics == null ? 0 : System.nanoTime();
 
             //  Remove the minimum vertex from the priority queue
             CS16Vertex<V> currV = priorityQ.removeMin().getValue();
 
             // nodes are visited once they are removed from the queue
-            visitedDec.setDecoration(currV, true);
+            visitedDec.setBoolean(currV, true);
 
 
-            // previous node of currV
-            CS16Vertex<V> prevV = prevDec.getDecoration(currV);
+            // the edge that most recently updated currV, if any...
+            CS16Edge<V> prevEdge = edgeDec.getDecoration(currV);
 
-            // if currV's prev node isn't null, then...
-            if (prevV != null) {
+            if (prevEdge != null) {
 
-                // ...add the edge that most recently updated the vertex to the MSF
-                MSF.add(g.connectingEdge(currV, prevV));
+                // ...is added to the MSF as is, no need to look it up again
+                MSF.addEdge(prevEdge);
             }
 
             // checking through all of currV’s incident edges e...
@@ -102,16 +129,16 @@ public class MyPrimJarnik<V> implements MinSpanForest<V> {
 
                 // ...whose opposite vertex remains unvisited
                 CS16Vertex<V> oppV = g.opposite(currV,edge);
-                if(!visitedDec.getDecoration(oppV)){
+                if(!visitedDec.getBoolean(oppV)){
 
                     int edgeWeight = edge.element();
 
                     // if the cost of the opposite vertex is greater than that of the edge..
-                    if(costDec.getDecoration(oppV) > edgeWeight){
+                    if(costDec.getInt(oppV) > edgeWeight){
 
-                        // ...then, update cost and prev of the opposite vertex...
-                        costDec.setDecoration(oppV, edgeWeight);
-                        prevDec.setDecoration(oppV, currV);
+                        // ...then, update cost and the edge of the opposite vertex...
+                        costDec.setInt(oppV, edgeWeight);
+                        edgeDec.setDecoration(oppV, edge);
 
                         // ... and decrease the key of the opposite vertex in the priority queue
                         Entry<Integer,CS16Vertex<V>> entry = entryDec.getDecoration(oppV);
@@ -120,6 +147,16 @@ public class MyPrimJarnik<V> implements MinSpanForest<V> {
                     }
                 }
             }
+
+            if(metrics != null){
+                iterationTimer.record(System.nanoTime() - iterationStart);
+            }
+        }
+
+        if(metrics != null){
+            long end = System.nanoTime();
+            metrics.record("MyPrimJarnik.mainLoop", end - loopStart);
+            metrics.record("MyPrimJarnik.run", end - runStart);
         }
 
         return MSF;
@@ -0,0 +1,821 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.GraphEdge;
+import support.graph.GraphVertex;
+import support.graph.DirectionException;
+import support.graph.InvalidEdgeException;
+import support.graph.InvalidVertexException;
+import support.graph.NoSuchEdgeException;
+import support.graph.NoSuchVertexException;
+
+/**
+ * This class defines a Graph whose edges live outside the Java heap. The
+ * edge pool (the two endpoints and the weight of every edge) and the rows
+ * that group edges by vertex are OffHeapIntArrays, so each edge costs 12
+ * bytes of direct memory plus 4 or 8 for its row entries, and nothing on
+ * the heap. Only the vertices and per-vertex arrays are heap objects.
+ *
+ * Since no edge objects are stored, edges are handed out as new
+ * GraphEdges whenever they are asked for, and dropped by the caller when
+ * it's done with them. Two edges returned for the same edge hold the same
+ * vertices and element but are not the same object, so removeEdge finds
+ * the edge to remove by its end vertices and element. Algorithms that
+ * only walk the edges, such as MyPageRank or MyIndexedPrimJarnik, never
+ * hold more than a few edge objects at once; ones that copy every edge
+ * into an array first, such as MyKruskal, do materialize them all.
+ *
+ * Like CsrGraph, edges are appended to the pool as they are inserted and
+ * the rows are rebuilt lazily, with a counting sort over the vertices, the
+ * next time a query needs them. Rows are kept in insertion order rather
+ * than sorted, so finding an edge scans the row of its first vertex.
+ */
+public class OffHeapGraph<V> implements BulkLoadable<V> {
+
+    // initial capacity of the vertex arrays
+    private static final int INITIAL_CAPACITY = 16;
+
+    // vertex slots, indexed by vertex number (null once a vertex is removed)
+    private CS16Vertex<V>[] _vertexSlots;
+    private int _numSlots;
+    private int _numVertices;
+
+    // edge pool, indexed by edge id; _edgeSrc is -1 once an edge is removed
+    private OffHeapIntArray _edgeSrc;
+    private OffHeapIntArray _edgeDst;
+    private OffHeapIntArray _edgeWeight;
+    private int _numEdgeSlots;
+    private int _numEdges;
+
+    // live degree of every vertex, kept up to date on every insert and remove
+    private int[] _outDegree;
+    private int[] _inDegree;
+
+    // the rows: the edge ids of vertex v are [offsets[v], offsets[v + 1])
+    private int[] _outOffsets;
+    private OffHeapIntArray _outEdgeIds;
+    private int[] _inOffsets;
+    private OffHeapIntArray _inEdgeIds;
+    // true when edges or vertices were inserted since the rows were last built
+    private boolean _dirty;
+
+    // boolean that keeps track of directedness of graph
+    private boolean _directed;
+
+    /**
+     * Constructor for the Graph. Takes in a boolean that represents whether
+     * the graph will be directed.
+     *
+     * This runs in O(1) time.
+     */
+    public OffHeapGraph(boolean directed) {
+        _directed = directed;
+        this.clear();
+    }
+
+    /**
+     * Returns an iterator holding all the Vertices of the graph.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @return an Iterator containing the vertices of the Graph.
+     */
+    @Override
+    public Iterator<CS16Vertex<V>> vertices() {
+        return new Iterator<CS16Vertex<V>>() {
+            private int _next = this.skip(0);
+
+            private int skip(int v) {
+                while(v < _numSlots && _vertexSlots[v] == null){
+                    v++;
+                }
+                return v;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return _next < _numSlots;
+            }
+
+            @Override
+            public CS16Vertex<V> next() {
+                if(!this.hasNext()){
+                    throw new NoSuchElementException();
+                }
+                CS16Vertex<V> vertex = _vertexSlots[_next];
+                _next = this.skip(_next + 1);
+                return vertex;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator holding all the edges of the graph. Each edge is
+     * made as the iterator reaches it.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @return an Iterator containing the edges of the Graph.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> edges() {
+        return new Iterator<CS16Edge<V>>() {
+            private final int _end = _numEdgeSlots;
+            private int _next = this.skip(0);
+
+            private int skip(int id) {
+                while(id < _end && _edgeSrc.get(id) < 0){
+                    id++;
+                }
+                return id;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return _next < _end;
+            }
+
+            @Override
+            public CS16Edge<V> next() {
+                if(!this.hasNext()){
+                    throw new NoSuchElementException();
+                }
+                CS16Edge<V> edge = edgeAt(_next);
+                _next = this.skip(_next + 1);
+                return edge;
+            }
+        };
+    }
+
+    /**
+     * Inserts a new Vertex into the Graph.
+     *
+     * <p>
+     * This runs in amortized O(1) time.
+     * </p>
+     *
+     * @param vertElement
+     *            the element to be added to the graph as a vertex
+     */
+    @Override
+    public CS16Vertex<V> insertVertex(V vertElement) {
+
+        if(_numSlots == _vertexSlots.length){
+            this.growVertexArrays(_vertexSlots.length * 2);
+        }
+
+        CS16Vertex<V> newVertex = new GraphVertex<>(vertElement);
+        newVertex.setVertexNumber(_numSlots);
+
+        _vertexSlots[_numSlots] = newVertex;
+        _numSlots++;
+        _numVertices++;
+
+        // the row offsets have one entry per vertex slot
+        _dirty = true;
+        return newVertex;
+    }
+
+    /**
+     * Inserts a new Edge into the Graph, appending it to the edge pool. The
+     * edge returned is a view of the stored edge. A null element is stored
+     * as the weight 0.
+     *
+     * <p>
+     * This runs in amortized O(1) time.
+     * </p>
+     *
+     * @param v1
+     *            The first vertex of the edge connection.
+     * @param v2
+     *            The second vertex of the edge connection.
+     * @param edgeElement
+     *            The element of the newly inserted edge.
+     * @return Returns the newly inserted Edge.
+     * @throws InvalidVertexException
+     *             Thrown when either Vertex is null.
+     */
+    @Override
+    public CS16Edge<V> insertEdge(CS16Vertex<V> v1, CS16Vertex<V> v2, Integer edgeElement)
+            throws InvalidVertexException {
+        if(v1 == null || v2 == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        this.ensureEdgeCapacity(_numEdgeSlots + 1);
+        this.appendEdge(v1.getVertexNumber(), v2.getVertexNumber(), edgeElement == null ? 0 : edgeElement);
+        _dirty = true;
+
+        return new GraphEdge<>(edgeElement, v1, v2);
+    }
+
+    /**
+     * Sizes the vertex arrays and the edge pool to hold the given numbers of
+     * new vertices and edges without growing again.
+     *
+     * <p>
+     * This runs in O(|V|) time when the vertex arrays grow, O(1) otherwise.
+     * </p>
+     *
+     * @param expectedVertices the number of vertices about to be inserted
+     * @param expectedEdges the number of edges about to be inserted
+     */
+    @Override
+    public void ensureCapacity(int expectedVertices, int expectedEdges) {
+        if(_numSlots + expectedVertices > _vertexSlots.length){
+            this.growVertexArrays(Math.max(_numSlots + expectedVertices, 2 * _vertexSlots.length));
+        }
+        this.ensureEdgeCapacity((long) _numEdgeSlots + expectedEdges);
+    }
+
+    /**
+     * Appends numEdges edges to the edge pool in one pass. No edge objects
+     * are made at all.
+     *
+     * <p>
+     * This runs in O(numEdges) time.
+     * </p>
+     *
+     * @param vertices the vertices the sources and targets index into
+     * @param sources the index in vertices of the first vertex of each edge
+     * @param targets the index in vertices of the second vertex of each edge
+     * @param weights the element of each edge
+     * @param numEdges the number of edges to insert
+     * @throws InvalidVertexException
+     *             Thrown when a vertex an edge refers to is null, in which
+     *             case none of the edges are inserted.
+     */
+    @Override
+    public void insertEdges(CS16Vertex<V>[] vertices, int[] sources, int[] targets, int[] weights, int numEdges)
+            throws InvalidVertexException {
+        if(sources.length < numEdges || targets.length < numEdges || weights.length < numEdges){
+            throw new IllegalArgumentException("The edge arrays are shorter than numEdges.");
+        }
+
+        // checking the whole batch first, so a bad edge leaves the graph as it was
+        for(int k = 0; k < numEdges; k++){
+            if(vertices[sources[k]] == null || vertices[targets[k]] == null){
+                throw new InvalidVertexException("A vertex is null.");
+            }
+        }
+
+        this.ensureEdgeCapacity((long) _numEdgeSlots + numEdges);
+
+        for(int k = 0; k < numEdges; k++){
+            this.appendEdge(vertices[sources[k]].getVertexNumber(), vertices[targets[k]].getVertexNumber(), weights[k]);
+        }
+
+        _dirty = true;
+    }
+
+    /**
+     * Removes a Vertex and all of its incident edges from the graph.
+     * <p>
+     * This runs in O(deg(v)) time once the rows are built.
+     * </p>
+     *
+     * @param vert
+     *            The Vertex to remove.
+     * @return The element of the removed Vertex.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public V removeVertex(CS16Vertex<V> vert) throws InvalidVertexException {
+
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        this.ensureRows();
+        int v = vert.getVertexNumber();
+
+        for(int k = _outOffsets[v]; k < _outOffsets[v + 1]; k++){
+            this.killEdge(_outEdgeIds.get(k));
+        }
+        if(_directed){
+            for(int k = _inOffsets[v]; k < _inOffsets[v + 1]; k++){
+                this.killEdge(_inEdgeIds.get(k));
+            }
+        }
+
+        if(_vertexSlots[v] == vert){
+            _vertexSlots[v] = null;
+            _numVertices--;
+        }
+        return vert.element();
+    }
+
+    /**
+     * Removes an Edge from the Graph. Since edges are views, the first
+     * stored edge with the same end vertices and element is removed.
+     *
+     * <p>
+     * This runs in O(deg(v)) time once the rows are built, where v is the
+     * first vertex of the edge.
+     * </p>
+     *
+     * @param edge
+     *            The Edge to remove.
+     * @return The element of the removed Edge.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge is null.
+     */
+    @Override
+    public Integer removeEdge(CS16Edge<V> edge) throws InvalidEdgeException {
+
+        if(edge == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        this.ensureRows();
+        int i = edge.getVertexOne().getVertexNumber();
+        int j = edge.getVertexTwo().getVertexNumber();
+        int weight = edge.element() == null ? 0 : edge.element();
+
+        for(int k = _outOffsets[i]; k < _outOffsets[i + 1]; k++){
+            int id = _outEdgeIds.get(k);
+            if(_edgeSrc.get(id) == i && _edgeDst.get(id) == j && _edgeWeight.get(id) == weight){
+                this.killEdge(id);
+                break;
+            }
+        }
+
+        return edge.element();
+    }
+
+    /**
+     * Returns the edge that connects the two vertices. If several edges
+     * connect them, the most recently inserted one is returned, just like the
+     * overwritten cell of an adjacency matrix.
+     *
+     * <p>
+     * This runs in O(deg(v1)) time once the rows are built.
+     * </p>
+     *
+     * @param v1
+     *            The first vertex that may be connected.
+     * @param v2
+     *            The second vertex that may be connected.
+     * @return The edge that connects the first and second vertices.
+     * @throws InvalidVertexException
+     *             Thrown when either vertex is null.
+     * @throws NoSuchEdgeException
+     *             Thrown when no edge connects the vertices.
+     */
+    @Override
+    public CS16Edge<V> connectingEdge(CS16Vertex<V> v1, CS16Vertex<V> v2)
+            throws InvalidVertexException, NoSuchEdgeException {
+
+        if(v1 == null || v2 == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        int id = this.findEdge(v1.getVertexNumber(), v2.getVertexNumber());
+        if(id < 0){
+            throw new NoSuchEdgeException("No edge connecting the vertices.");
+        }
+        return this.edgeAt(id);
+    }
+
+    /**
+     * Returns an Iterator over all the Edges that are incoming to this Vertex.
+     * <p>
+     * This runs in O(1) time once the rows are built; iterating takes
+     * O(deg(v)).
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the incoming edges on.
+     * @return Returns an Iterator holding the incoming edges on v.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> incomingEdges(CS16Vertex<V> vert) throws InvalidVertexException {
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        this.ensureRows();
+        int v = vert.getVertexNumber();
+        return new RowIterator(_inEdgeIds, _inOffsets[v], _inOffsets[v + 1]);
+    }
+
+    /**
+     * Returns an Iterator of all the Edges that are outgoing from this vertex.
+     * <p>
+     * This runs in O(1) time once the rows are built; iterating takes
+     * O(deg(v)).
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the outgoing edges on.
+     * @return Returns an Iterator holding the outgoing edges on v.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is null.
+     */
+    @Override
+    public Iterator<CS16Edge<V>> outgoingEdges(CS16Vertex<V> vert) throws InvalidVertexException {
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        this.ensureRows();
+        int v = vert.getVertexNumber();
+        return new RowIterator(_outEdgeIds, _outOffsets[v], _outOffsets[v + 1]);
+    }
+
+    /**
+     * Returns an int of the number Edges that are leaving from this Vertex.
+     * This should only work if called on a directed graph.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param vert
+     *            The vertex to find the outgoing edges on.
+     * @return an int
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is not valid.
+     * @throws DirectionException
+     *             Thrown when this method is called on an undirected graph.
+     */
+    @Override
+    public int numOutgoingEdges(CS16Vertex<V> vert) throws InvalidVertexException, DirectionException {
+
+        if(vert == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        if(!_directed){
+            throw new DirectionException("Graph is undirected.");
+        }
+
+        return _outDegree[vert.getVertexNumber()];
+    }
+
+    /**
+     * Returns the Vertex that is on the other side of Edge e opposite of
+     * Vertex v.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param vert
+     *            The first vertex on Edge e.
+     * @param edge
+     *            The edge connecting Vertex v and the unknown opposite Vertex.
+     * @return The opposite Vertex of v across Edge e.
+     * @throws InvalidVertexException
+     *             Thrown when the Vertex is not valid.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge is not valid.
+     * @throws NoSuchVertexException
+     *             Thrown when Edge e is not incident on v.
+     */
+    @Override
+    public CS16Vertex<V> opposite(CS16Vertex<V> vert, CS16Edge<V> edge)
+            throws InvalidVertexException, InvalidEdgeException, NoSuchVertexException {
+
+        if(vert == null){
+            throw new InvalidVertexException("Vertex is null.");
+        }
+
+        if(edge == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        if(edge.getVertexOne() == vert){
+            return edge.getVertexTwo();
+        } else if(edge.getVertexTwo() == vert){
+            return edge.getVertexOne();
+        } else {
+            throw new NoSuchVertexException("Edge e is not incident on v.");
+        }
+    }
+
+    /**
+     * Returns the two Vertices that the Edge e is connected to.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     *
+     * @param e
+     *            The edge to find the connecting Vertex's on.
+     * @return a list of Vertex's holding the two connecting vertices.
+     * @throws InvalidEdgeException
+     *             Thrown when the Edge e is null.
+     */
+    @Override
+    public List<CS16Vertex<V>> endVertices(CS16Edge<V> e) throws InvalidEdgeException {
+
+        if(e == null){
+            throw new InvalidEdgeException("Edge is null.");
+        }
+
+        List<CS16Vertex<V>> endVertices = new ArrayList<>(2);
+        endVertices.add(e.getVertexOne());
+        endVertices.add(e.getVertexTwo());
+
+        return endVertices;
+    }
+
+    /**
+     * Returns true if there exists an Edge that starts from Vertex v1 and ends
+     * at Vertex v2. For an undirected graph the direction does not matter.
+     *
+     * <p>
+     * This runs in O(deg(v1)) time once the rows are built.
+     * </p>
+     *
+     * @param v1
+     *            The first Vertex to test adjacency.
+     * @param v2
+     *            The second Vertex to test adjacency.
+     * @return Returns true if the vertices are adjacent.
+     * @throws InvalidVertexException
+     *             Thrown if either vertex is null.
+     */
+    @Override
+    public boolean areAdjacent(CS16Vertex<V> v1, CS16Vertex<V> v2) throws InvalidVertexException {
+
+        if(v1 == null || v2 == null){
+            throw new InvalidVertexException("A vertex is null.");
+        }
+
+        return this.findEdge(v1.getVertexNumber(), v2.getVertexNumber()) >= 0;
+    }
+
+    /**
+     * Toggles the directedness of the graph.
+     */
+    @Override
+    public void toggleDirected() {
+        _directed = !_directed;
+        this.clear();
+    }
+
+    /**
+     * Clears all the vertices and edges from the graph. The old off-heap
+     * arrays are freed once they are garbage collected.
+     *
+     * <p>
+     * This runs in O(1) time.
+     * </p>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        _vertexSlots = new CS16Vertex[INITIAL_CAPACITY];
+        _outDegree = new int[INITIAL_CAPACITY];
+        _inDegree = new int[INITIAL_CAPACITY];
+        _numSlots = 0;
+        _numVertices = 0;
+
+        _edgeSrc = new OffHeapIntArray();
+        _edgeDst = new OffHeapIntArray();
+        _edgeWeight = new OffHeapIntArray();
+        _numEdgeSlots = 0;
+        _numEdges = 0;
+
+        _outEdgeIds = new OffHeapIntArray();
+        _inEdgeIds = _directed ? new OffHeapIntArray() : _outEdgeIds;
+        _dirty = true;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     */
+    @Override
+    public int getNumVertices() {
+        return _numVertices;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     */
+    public int getNumEdges() {
+        return _numEdges;
+    }
+
+    /**
+     * Rebuilds the rows if edges or vertices were inserted since they were
+     * last built. Dead edges are dropped from the edge pool first, and the
+     * live degrees give the row lengths, so a single pass over the pool
+     * places every edge without any temporary arrays of edge length.
+     *
+     * <p>
+     * This runs in O(|V| + |E|) time when a rebuild is needed.
+     * </p>
+     */
+    private void ensureRows() {
+        if(!_dirty){
+            return;
+        }
+
+        this.compactEdges();
+
+        _outOffsets = prefixSums(_outDegree, _numSlots);
+        _outEdgeIds.ensureCapacity(_outOffsets[_numSlots]);
+        int[] nextOut = Arrays.copyOf(_outOffsets, _numSlots);
+
+        int[] nextIn = null;
+        if(_directed){
+            _inOffsets = prefixSums(_inDegree, _numSlots);
+            _inEdgeIds.ensureCapacity(_inOffsets[_numSlots]);
+            nextIn = Arrays.copyOf(_inOffsets, _numSlots);
+        } else {
+            // incoming and outgoing rows are the same for an undirected graph
+            _inOffsets = _outOffsets;
+        }
+
+        for(int id = 0; id < _numEdgeSlots; id++){
+            int i = _edgeSrc.get(id);
+            int j = _edgeDst.get(id);
+
+            _outEdgeIds.set(nextOut[i]++, id);
+            if(_directed){
+                _inEdgeIds.set(nextIn[j]++, id);
+            } else if(i != j){
+                // every edge appears in the row of both endpoints, self-loops once
+                _outEdgeIds.set(nextOut[j]++, id);
+            }
+        }
+
+        _dirty = false;
+    }
+
+    /**
+     * Returns the n + 1 offsets of rows with the given lengths.
+     */
+    private static int[] prefixSums(int[] lengths, int n) {
+        int[] offsets = new int[n + 1];
+        for(int v = 0; v < n; v++){
+            offsets[v + 1] = offsets[v] + lengths[v];
+        }
+        return offsets;
+    }
+
+    /**
+     * Slides live edges down over dead ones so edge ids are dense again.
+     */
+    private void compactEdges() {
+        if(_numEdges == _numEdgeSlots){
+            return;
+        }
+
+        int live = 0;
+        for(int id = 0; id < _numEdgeSlots; id++){
+            if(_edgeSrc.get(id) >= 0){
+                _edgeSrc.set(live, _edgeSrc.get(id));
+                _edgeDst.set(live, _edgeDst.get(id));
+                _edgeWeight.set(live, _edgeWeight.get(id));
+                live++;
+            }
+        }
+        _numEdgeSlots = live;
+    }
+
+    /**
+     * Returns the id of the most recently inserted live edge from i to j
+     * (or between them, if undirected), or -1 if there is none.
+     */
+    private int findEdge(int i, int j) {
+        this.ensureRows();
+
+        int found = -1;
+        for(int k = _outOffsets[i]; k < _outOffsets[i + 1]; k++){
+            int id = _outEdgeIds.get(k);
+            int src = _edgeSrc.get(id);
+            int dst = _edgeDst.get(id);
+            if(src >= 0 && (src == i ? dst == j : !_directed && src == j)){
+                found = id;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Marks an edge as dead. Its row entries are skipped until the next
+     * rebuild drops them.
+     */
+    private void killEdge(int id) {
+        int i = _edgeSrc.get(id);
+        if(i < 0){
+            return;
+        }
+
+        this.addDegrees(i, _edgeDst.get(id), -1);
+        _edgeSrc.set(id, -1);
+        _numEdges--;
+    }
+
+    /**
+     * Writes an edge to the end of the pool, which must have room for it.
+     */
+    private void appendEdge(int i, int j, int weight) {
+        _edgeSrc.set(_numEdgeSlots, i);
+        _edgeDst.set(_numEdgeSlots, j);
+        _edgeWeight.set(_numEdgeSlots, weight);
+        _numEdgeSlots++;
+        _numEdges++;
+
+        this.addDegrees(i, j, 1);
+    }
+
+    /**
+     * Returns a new view of a live edge.
+     */
+    private CS16Edge<V> edgeAt(int id) {
+        return new GraphEdge<>(_edgeWeight.get(id), _vertexSlots[_edgeSrc.get(id)], _vertexSlots[_edgeDst.get(id)]);
+    }
+
+    /**
+     * Grows the vertex slot and degree arrays to the given capacity.
+     */
+    private void growVertexArrays(int capacity) {
+        _vertexSlots = Arrays.copyOf(_vertexSlots, capacity);
+        _outDegree = Arrays.copyOf(_outDegree, capacity);
+        _inDegree = Arrays.copyOf(_inDegree, capacity);
+    }
+
+    /**
+     * Grows the edge pool to hold at least capacity edges, by at least
+     * double so repeated inserts stay amortized O(1).
+     */
+    private void ensureEdgeCapacity(long capacity) {
+        if(capacity > Integer.MAX_VALUE){
+            throw new IllegalStateException("An OffHeapGraph holds at most " + Integer.MAX_VALUE + " edges.");
+        }
+        if(capacity > _edgeSrc.capacity()){
+            long grown = Math.max(capacity, 2 * _edgeSrc.capacity());
+            _edgeSrc.ensureCapacity(grown);
+            _edgeDst.ensureCapacity(grown);
+            _edgeWeight.ensureCapacity(grown);
+        }
+    }
+
+    /**
+     * Adjusts the live degrees of both endpoints of an edge.
+     */
+    private void addDegrees(int i, int j, int delta) {
+        _outDegree[i] += delta;
+        _inDegree[j] += delta;
+        if(!_directed && i != j){
+            _outDegree[j] += delta;
+            _inDegree[i] += delta;
+        }
+    }
+
+    /**
+     * Iterates over the live edges of one row, making each as it's reached.
+     */
+    private class RowIterator implements Iterator<CS16Edge<V>> {
+        private final OffHeapIntArray _ids;
+        private final int _end;
+        private int _next;
+
+        RowIterator(OffHeapIntArray ids, int start, int end) {
+            _ids = ids;
+            _next = start;
+            _end = end;
+            this.advance();
+        }
+
+        private void advance() {
+            while(_next < _end && _edgeSrc.get(_ids.get(_next)) < 0){
+                _next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _next < _end;
+        }
+
+        @Override
+        public CS16Edge<V> next() {
+            if(!this.hasNext()){
+                throw new NoSuchElementException();
+            }
+            CS16Edge<V> edge = edgeAt(_ids.get(_next++));
+            this.advance();
+            return edge;
+        }
+    }
+}
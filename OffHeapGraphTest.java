@@ -0,0 +1,173 @@
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.InvalidVertexException;
+
+/**
+ * This class tests the parts of OffHeapGraph that differ from the other
+ * graphs: edges are views made on demand, removed by their end vertices
+ * and element, and the off-heap rows are rebuilt as the graph changes.
+ */
+public class OffHeapGraphTest {
+
+    /**
+     * Counts what is left in an iterator.
+     */
+    private static int count(Iterator<?> it) {
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Edges handed out for the same edge hold the same vertices and element,
+     * and any of them can be used to remove it.
+     */
+    @Test(timeout = 10000)
+    public void testEdgesAreViews() {
+        OffHeapGraph<String> graph = new OffHeapGraph<>(true);
+        CS16Vertex<String> A = graph.insertVertex("A");
+        CS16Vertex<String> B = graph.insertVertex("B");
+
+        CS16Edge<String> ab = graph.insertEdge(A, B, 3);
+        CS16Edge<String> found = graph.connectingEdge(A, B);
+
+        assertNotSame(ab, found);
+        assertSame(A, found.getVertexOne());
+        assertSame(B, found.getVertexTwo());
+        assertEquals(Integer.valueOf(3), found.element());
+        assertFalse(graph.areAdjacent(B, A));
+
+        graph.removeEdge(ab);
+        assertFalse(graph.areAdjacent(A, B));
+        assertEquals(0, graph.getNumEdges());
+    }
+
+    /**
+     * Parallel edges are told apart by their elements when one is removed.
+     */
+    @Test(timeout = 10000)
+    public void testRemoveParallelEdge() {
+        OffHeapGraph<String> graph = new OffHeapGraph<>(false);
+        CS16Vertex<String> A = graph.insertVertex("A");
+        CS16Vertex<String> B = graph.insertVertex("B");
+
+        graph.insertEdge(A, B, 1);
+        CS16Edge<String> heavy = graph.insertEdge(A, B, 9);
+        graph.removeEdge(heavy);
+
+        assertEquals(1, graph.getNumEdges());
+        assertEquals(Integer.valueOf(1), graph.connectingEdge(B, A).element());
+        assertEquals(1, count(graph.outgoingEdges(B)));
+    }
+
+    /**
+     * Bulk-loaded edges, over more than one off-heap chunk, show up in the
+     * rows of both of their ends, and removing a vertex takes its edges out.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testBulkLoadAndRemoveVertex() {
+        OffHeapGraph<String> graph = new OffHeapGraph<>(true);
+        int n = 1000;
+        int m = 1572 * n;
+        graph.ensureCapacity(n, m);
+
+        CS16Vertex<String>[] vertices = new CS16Vertex[n];
+        for (int v = 0; v < n; v++) {
+            vertices[v] = graph.insertVertex("v" + v);
+        }
+
+        // every vertex gets the same number of outgoing and incoming edges
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        for (int k = 0; k < m; k++) {
+            sources[k] = k % n;
+            targets[k] = (k * 7 + 1) % n;
+            weights[k] = k % 100;
+        }
+        graph.insertEdges(vertices, sources, targets, weights, m);
+
+        assertEquals(m, graph.getNumEdges());
+        assertEquals(m / n, graph.numOutgoingEdges(vertices[0]));
+        assertEquals(m / n, count(graph.incomingEdges(vertices[1])));
+        assertTrue(graph.areAdjacent(vertices[0], vertices[1]));
+
+        int out = graph.numOutgoingEdges(vertices[0]);
+        int in = count(graph.incomingEdges(vertices[0]));
+        graph.removeVertex(vertices[0]);
+
+        assertEquals(m - out - in, graph.getNumEdges());
+        assertEquals(m - out - in, count(graph.edges()));
+        assertFalse(graph.areAdjacent(vertices[0], vertices[1]));
+        assertEquals(n - 1, graph.getNumVertices());
+    }
+
+    /**
+     * A batch that fails on a null vertex adds none of its edges, so the
+     * counts and the rows still agree.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testFailedBatchAddsNothing() {
+        OffHeapGraph<String> graph = new OffHeapGraph<>(true);
+        CS16Vertex<String>[] vertices = new CS16Vertex[3];
+        vertices[0] = graph.insertVertex("A");
+        vertices[1] = graph.insertVertex("B");
+
+        try {
+            graph.insertEdges(vertices, new int[] {0, 2}, new int[] {1, 0}, new int[] {1, 2}, 2);
+            fail("insertEdges took a null vertex");
+        } catch (InvalidVertexException e) {
+            // expected
+        }
+
+        assertEquals(0, graph.getNumEdges());
+        assertEquals(0, graph.numOutgoingEdges(vertices[0]));
+        assertFalse(graph.areAdjacent(vertices[0], vertices[1]));
+        assertEquals(0, count(graph.outgoingEdges(vertices[0])));
+
+        graph.insertEdges(vertices, new int[] {0}, new int[] {1}, new int[] {1}, 1);
+        assertEquals(1, graph.numOutgoingEdges(vertices[0]));
+        assertTrue(graph.areAdjacent(vertices[0], vertices[1]));
+    }
+
+    /**
+     * PageRank runs over the edge views just like over stored edges.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testPageRankMatchesCsrGraph() {
+        OffHeapGraph<String> offHeap = new OffHeapGraph<>(true);
+        CsrGraph<String> csr = new CsrGraph<>(true);
+        CS16Vertex<String>[] a = new CS16Vertex[4];
+        CS16Vertex<String>[] b = new CS16Vertex[4];
+        for (int v = 0; v < 4; v++) {
+            a[v] = offHeap.insertVertex("v" + v);
+            b[v] = csr.insertVertex("v" + v);
+        }
+        int[][] links = {{0, 1}, {1, 2}, {2, 0}, {3, 0}, {3, 2}};
+        for (int[] link : links) {
+            offHeap.insertEdge(a[link[0]], a[link[1]], 1);
+            csr.insertEdge(b[link[0]], b[link[1]], 1);
+        }
+
+        Map<CS16Vertex<String>, Double> offHeapRanks = new MyPageRank<String>().calcPageRank(offHeap);
+        Map<CS16Vertex<String>, Double> csrRanks = new MyPageRank<String>().calcPageRank(csr);
+        for (int v = 0; v < 4; v++) {
+            assertEquals(csrRanks.get(b[v]), offHeapRanks.get(a[v]), 0);
+        }
+    }
+}
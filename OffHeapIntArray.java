@@ -0,0 +1,84 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * A growable array of ints kept outside the Java heap, in direct
+ * ByteBuffers. Past the first chunk, the ints are split into fixed-size
+ * chunks, so the array can hold more than one direct buffer can, and
+ * growing it only allocates new chunks instead of copying the old ones.
+ *
+ * The memory is freed when the array is garbage collected. How much of it
+ * there can be is capped by -XX:MaxDirectMemorySize rather than by the
+ * heap size.
+ */
+final class OffHeapIntArray {
+
+    // each chunk holds 2^CHUNK_SHIFT ints (4MB)
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // the smallest first chunk, so small arrays stay small
+    private static final int MIN_CAPACITY = 16;
+
+    private IntBuffer[] _chunks = new IntBuffer[0];
+    // size of the first chunk, which doubles until it's a full chunk
+    private int _firstCapacity;
+
+    /**
+     * Returns how many ints the array can hold without growing.
+     */
+    long capacity() {
+        return _chunks.length <= 1 ? _firstCapacity : (long) _chunks.length << CHUNK_SHIFT;
+    }
+
+    /**
+     * Grows the array until it holds at least capacity ints, keeping its
+     * contents. New ints start out as 0. Until the array is a chunk long
+     * its one chunk is copied into one at least twice the size; after
+     * that only new chunks are allocated.
+     */
+    void ensureCapacity(long capacity) {
+        if(capacity <= this.capacity()){
+            return;
+        }
+
+        if(_firstCapacity < CHUNK_SIZE){
+            int first = (int) Math.min(CHUNK_SIZE, Math.max(capacity, Math.max(MIN_CAPACITY, 2L * _firstCapacity)));
+            IntBuffer chunk = allocate(first);
+            if(_chunks.length == 1){
+                IntBuffer old = _chunks[0].duplicate();
+                old.clear();
+                chunk.put(old);
+                chunk.clear();
+            }
+            _chunks = new IntBuffer[] {chunk};
+            _firstCapacity = first;
+        }
+
+        int numChunks = (int) ((capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+        int oldChunks = _chunks.length;
+        if(numChunks > oldChunks){
+            _chunks = Arrays.copyOf(_chunks, numChunks);
+            for(int c = oldChunks; c < numChunks; c++){
+                _chunks[c] = allocate(CHUNK_SIZE);
+            }
+        }
+    }
+
+    int get(int index) {
+        return _chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    void set(int index, int value) {
+        _chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, value);
+    }
+
+    private static IntBuffer allocate(int size) {
+        return ByteBuffer.allocateDirect(4 * size).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+}
@@ -0,0 +1,129 @@
+package graph;
+
+/**
+ * The settings MyPageRank runs with: the damping factor, how close two
+ * consecutive rank vectors have to be before it stops, the most
+ * iterations it may take, the norm used to measure that distance, and
+ * the solver that computes each new rank vector.
+ *
+ * The no-argument constructor keeps the damping factor of 0.85 and the
+ * 100 iteration cap the algorithm has always used, and stops once the
+ * L1 norm of the change over all the vertices is at most 0.0001, using
+ * plain (Jacobi) power iteration.
+ *
+ */
+public class PageRankConfig {
+
+	/**
+	 * The norms the residual (the change between two iterations) can be
+	 * measured in. L1 sums the change of every vertex and L_INFINITY
+	 * takes the largest change of any one vertex.
+	 */
+	public enum Norm {
+		L1, L_INFINITY
+	}
+
+	/**
+	 * The ways each iteration can compute the new ranks.
+	 *
+	 * JACOBI is plain power iteration: every new rank is summed from the
+	 * ranks of the previous iteration.
+	 *
+	 * GAUSS_SEIDEL updates the ranks in place, so every rank is summed
+	 * from the newest ranks there are. Where pages link back and forth it
+	 * often takes about half the iterations, but on graphs where most
+	 * pages are sinks it can take more. It always runs on the calling
+	 * thread, and it never adds sink edges to the graph, whichever way
+	 * MyPageRank handles sinks.
+	 *
+	 * ADAPTIVE is power iteration that stops recomputing a vertex once its
+	 * rank has settled, so the later iterations only sum the ranks that
+	 * are still moving. It takes as many iterations, but cheaper ones, and
+	 * the settled ranks can be off by about the tolerance.
+	 *
+	 * EXTRAPOLATION is power iteration that every few iterations jumps
+	 * ahead, by taking the two slowest-shrinking parts of the error out
+	 * of the ranks.
+	 */
+	public enum Solver {
+		JACOBI, GAUSS_SEIDEL, ADAPTIVE, EXTRAPOLATION
+	}
+
+	private final double _dampingFactor;
+	private final double _tolerance;
+	private final int _maxIterations;
+	private final Norm _norm;
+	private final Solver _solver;
+
+	/**
+	 * Constructor for the default configuration.
+	 */
+	public PageRankConfig() {
+		this(0.85, 0.0001, 100, Norm.L1);
+	}
+
+	/**
+	 * Constructor for a custom configuration that uses the JACOBI solver.
+	 *
+	 * @param dampingFactor the probability of following a link, in [0, 1]
+	 * @param tolerance the residual at or below which the ranks have converged
+	 * @param maxIterations the most iterations to run, at least 1
+	 * @param norm the norm the residual is measured in
+	 */
+	public PageRankConfig(double dampingFactor, double tolerance, int maxIterations, Norm norm) {
+		this(dampingFactor, tolerance, maxIterations, norm, Solver.JACOBI);
+	}
+
+	/**
+	 * Constructor for a custom configuration.
+	 *
+	 * @param dampingFactor the probability of following a link, in [0, 1]
+	 * @param tolerance the residual at or below which the ranks have converged
+	 * @param maxIterations the most iterations to run, at least 1
+	 * @param norm the norm the residual is measured in
+	 * @param solver how each iteration computes the new ranks
+	 */
+	public PageRankConfig(double dampingFactor, double tolerance, int maxIterations, Norm norm, Solver solver) {
+		if (dampingFactor < 0 || dampingFactor > 1) {
+			throw new IllegalArgumentException("Damping factor must be between 0 and 1.");
+		}
+		if (tolerance < 0) {
+			throw new IllegalArgumentException("Tolerance must not be negative.");
+		}
+		if (maxIterations < 1) {
+			throw new IllegalArgumentException("Max iterations must be at least 1.");
+		}
+		if (norm == null) {
+			throw new IllegalArgumentException("Norm is null.");
+		}
+		if (solver == null) {
+			throw new IllegalArgumentException("Solver is null.");
+		}
+
+		_dampingFactor = dampingFactor;
+		_tolerance = tolerance;
+		_maxIterations = maxIterations;
+		_norm = norm;
+		_solver = solver;
+	}
+
+	public double getDampingFactor() {
+		return _dampingFactor;
+	}
+
+	public double getTolerance() {
+		return _tolerance;
+	}
+
+	public int getMaxIterations() {
+		return _maxIterations;
+	}
+
+	public Norm getNorm() {
+		return _norm;
+	}
+
+	public Solver getSolver() {
+		return _solver;
+	}
+}
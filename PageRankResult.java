@@ -0,0 +1,67 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import support.graph.CS16Vertex;
+
+/**
+ * What a run of MyPageRank produced: the rank of every vertex, plus the
+ * residual (the distance between the ranks before and after, in the
+ * configured norm) of every iteration, so the number of iterations can
+ * be weighed against how accurate the ranks are.
+ *
+ */
+public class PageRankResult<V> {
+	private final Map<CS16Vertex<V>, Double> _ranks;
+	private final double[] _residuals;
+	private final boolean _converged;
+
+	/**
+	 * Constructor for a result.
+	 *
+	 * @param ranks the rank of every vertex
+	 * @param residuals the residual of every iteration, in order
+	 * @param converged whether the last residual was within the tolerance
+	 */
+	public PageRankResult(Map<CS16Vertex<V>, Double> ranks, double[] residuals, boolean converged) {
+		_ranks = ranks;
+		_residuals = residuals;
+		_converged = converged;
+	}
+
+	/**
+	 * Returns a Map of every Vertex to its corresponding rank.
+	 */
+	public Map<CS16Vertex<V>, Double> getRanks() {
+		return _ranks;
+	}
+
+	/**
+	 * Returns the number of iterations that were run.
+	 */
+	public int getNumIterations() {
+		return _residuals.length;
+	}
+
+	/**
+	 * Returns the residual of the given iteration, counting from 1.
+	 */
+	public double getResidual(int iteration) {
+		return _residuals[iteration - 1];
+	}
+
+	/**
+	 * Returns the residuals of all iterations, in order.
+	 */
+	public double[] getResiduals() {
+		return Arrays.copyOf(_residuals, _residuals.length);
+	}
+
+	/**
+	 * Returns true if the ranks converged before running out of iterations.
+	 */
+	public boolean hasConverged() {
+		return _converged;
+	}
+}
@@ -5,7 +5,10 @@ import org.junit.runner.notification.Failure;
 
 public class TestRunner {
    public static void main(String[] args) {
-        Result result = JUnitCore.runClasses(GraphTest.class, MsfTest.class, MyPageRankTest.class);
+        Result result = JUnitCore.runClasses(GraphTest.class, MsfTest.class, MyPageRankTest.class, BitMatrixGraphTest.class,
+                LinksFileLoaderTest.class, GraphSnapshotTest.class, OffHeapGraphTest.class,
+                VertexDecoratorTest.class, GraphGeneratorTest.class, GraphMetricsTest.class,
+                IncrementalPageRankTest.class);
       for (Failure failure : result.getFailures()) {
          System.out.println("TEST FAILED: " + failure.toString());
       }
@@ -0,0 +1,70 @@
+package graph;
+
+/**
+ * A union-find (disjoint set forest) over the ints 0 to n - 1, with
+ * union by size and path halving. Used by the MSF algorithms to tell
+ * whether an edge joins two different trees.
+ *
+ * find and union run in amortized near-constant time.
+ */
+public class UnionFind {
+    private final int[] _parent;
+    private final int[] _size;
+
+    /**
+     * Constructor for n singleton sets.
+     */
+    public UnionFind(int n) {
+        _parent = new int[n];
+        _size = new int[n];
+        for(int i = 0; i < n; i++){
+            _parent[i] = i;
+            _size[i] = 1;
+        }
+    }
+
+    /**
+     * Returns the root of the set holding i, halving the path on the way.
+     */
+    public int find(int i) {
+        while(_parent[i] != i){
+            _parent[i] = _parent[_parent[i]];
+            i = _parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Returns the root of the set holding i without changing anything, so
+     * several threads can call it at once while no union is running. Union
+     * by size keeps the path O(log n) long.
+     */
+    public int root(int i) {
+        while(_parent[i] != i){
+            i = _parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Merges the sets holding i and j.
+     *
+     * @return false if they were already in the same set
+     */
+    public boolean union(int i, int j) {
+        int rootI = this.find(i);
+        int rootJ = this.find(j);
+        if(rootI == rootJ){
+            return false;
+        }
+
+        if(_size[rootI] < _size[rootJ]){
+            int temp = rootI;
+            rootI = rootJ;
+            rootJ = temp;
+        }
+        _parent[rootJ] = rootI;
+        _size[rootI] += _size[rootJ];
+        return true;
+    }
+}
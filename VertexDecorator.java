@@ -0,0 +1,95 @@
+package graph;
+
+import java.util.Arrays;
+
+import support.graph.CS16Vertex;
+
+/**
+ * A decorator for vertices that stores its decorations in an array
+ * indexed by vertex number, as a drop-in replacement for a MyDecorator
+ * keyed by vertices. All methods except getKeys run in O(1) time.
+ */
+public class VertexDecorator<V, D> extends AbstractVertexDecorator<V, D> {
+
+    private Object[] _values;
+
+    /**
+     * Constructor for an empty decorator whose arrays grow as needed.
+     */
+    public VertexDecorator() {
+        this(0);
+    }
+
+    /**
+     * Constructor for an empty decorator sized for the vertex numbers 0 to
+     * capacity - 1.
+     */
+    public VertexDecorator(int capacity) {
+        super(capacity);
+        _values = new Object[this.capacity()];
+    }
+
+    /**
+     * Gets the decoration associated with the given key.
+     *
+     * @param key
+     *          the key used to retrieve a specific value.
+     * @return the value associated with the key parameter, or null if it
+     *          has none
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public D getDecoration(CS16Vertex<V> key) {
+        return super.hasDecoration(key) ? (D) _values[key.getVertexNumber()] : null;
+    }
+
+    /**
+     * Sets the decoration for the specified key to value.
+     *
+     * @param key
+     *          the key that will be used to retrieve your value
+     * @param value
+     *          the value associated with your key
+     */
+    @Override
+    public void setDecoration(CS16Vertex<V> key, D value) {
+        // claim may replace _values, so it has to run before the store
+        int slot = this.claim(key);
+        _values[slot] = value;
+    }
+
+    /**
+     * Returns true if there is a non-null decoration for the given key, the
+     * same as MyDecorator.
+     *
+     * @param key
+     *          a key that may or may not be in your decorator
+     * @return a boolean value that returns true if the key is valid
+     */
+    @Override
+    public boolean hasDecoration(CS16Vertex<V> key) {
+        return super.hasDecoration(key) && _values[key.getVertexNumber()] != null;
+    }
+
+    /**
+     * Removes the decoration for the given key and returns the value associated
+     * with it.
+     *
+     * @param key
+     *          key associated with a value
+     * @return value removed, or null if it had none
+     */
+    @Override
+    public D removeDecoration(CS16Vertex<V> key) {
+        D value = this.getDecoration(key);
+        if(this.release(key)){
+            _values[key.getVertexNumber()] = null;
+        }
+        return value;
+    }
+
+    @Override
+    protected void growValues(int capacity) {
+        _values = Arrays.copyOf(_values, capacity);
+    }
+}
@@ -0,0 +1,84 @@
+package graph;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import support.graph.CS16Vertex;
+
+/**
+ * This class tests the array-backed vertex decorators.
+ */
+public class VertexDecoratorTest {
+
+    /**
+     * Decorations are found by vertex number, and the arrays grow to fit
+     * vertex numbers past their initial capacity.
+     */
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testDecorationsGrow() {
+        AdjacencyMatrixGraph<String> graph = AdjacencyMatrixGraph.growable(false);
+        IntVertexDecorator<String> costs = new IntVertexDecorator<>();
+        DoubleVertexDecorator<String> ranks = new DoubleVertexDecorator<>(4);
+
+        CS16Vertex<String>[] vertices = new CS16Vertex[100];
+        for (int v = 0; v < vertices.length; v++) {
+            vertices[v] = graph.insertVertex("v" + v);
+            costs.setInt(vertices[v], v);
+            ranks.setDecoration(vertices[v], v / 2.0);
+        }
+
+        assertEquals(100, costs.size());
+        assertEquals(100, ranks.getKeys().size());
+        assertEquals(42, costs.getInt(vertices[42]));
+        assertEquals(Integer.valueOf(99), costs.getDecoration(vertices[99]));
+        assertEquals(21.0, ranks.getDouble(vertices[42]), 0);
+    }
+
+    /**
+     * A vertex that reuses the number of a removed one has no decoration,
+     * and removing a decoration returns it.
+     */
+    @Test(timeout = 10000)
+    public void testRecycledNumber() {
+        AdjacencyMatrixGraph<String> graph = new AdjacencyMatrixGraph<>(false);
+        BooleanVertexDecorator<String> visited = new BooleanVertexDecorator<>();
+        VertexDecorator<String, String> labels = new VertexDecorator<>();
+
+        CS16Vertex<String> A = graph.insertVertex("A");
+        visited.setBoolean(A, true);
+        labels.setDecoration(A, "a");
+
+        graph.removeVertex(A);
+        CS16Vertex<String> B = graph.insertVertex("B");
+        assertEquals(A.getVertexNumber(), B.getVertexNumber());
+
+        assertFalse(visited.hasDecoration(B));
+        assertFalse(visited.getBoolean(B));
+        assertNull(labels.getDecoration(B));
+
+        assertEquals("a", labels.removeDecoration(A));
+        assertFalse(labels.hasDecoration(A));
+        assertEquals(Boolean.TRUE, visited.removeDecoration(A));
+        assertEquals(0, visited.size());
+    }
+
+    /**
+     * Like MyDecorator, a null decoration counts as no decoration.
+     */
+    @Test(timeout = 10000)
+    public void testNullDecoration() {
+        AdjacencyMatrixGraph<String> graph = new AdjacencyMatrixGraph<>(false);
+        VertexDecorator<String, String> labels = new VertexDecorator<>();
+        IntVertexDecorator<String> costs = new IntVertexDecorator<>();
+
+        CS16Vertex<String> A = graph.insertVertex("A");
+        labels.setDecoration(A, null);
+        costs.setInt(A, 3);
+        costs.setDecoration(A, null);
+
+        assertFalse(labels.hasDecoration(A));
+        assertFalse(costs.hasDecoration(A));
+    }
+}
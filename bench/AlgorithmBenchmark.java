@@ -0,0 +1,82 @@
+package graph;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * Benchmarks of MyPrimJarnik.genMinSpanForest on an undirected graph and
+ * MyPageRank.calcPageRank on a directed one, each on a graph built once
+ * per trial. PageRank runs with each of its solvers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlgorithmBenchmark {
+
+    @Param({"matrix", "csr"})
+    public String _graphKind;
+
+    @Param({BenchmarkGraphs.ERDOS_RENYI, BenchmarkGraphs.POWER_LAW, BenchmarkGraphs.RMAT, BenchmarkGraphs.GEOMETRIC,
+            BenchmarkGraphs.GRID, "olympics_links.txt"})
+    public String _shape;
+
+    @Param({"1000"})
+    public int _numVertices;
+
+    @Param({"8"})
+    public int _degree;
+
+    /**
+     * The PageRank solver, in a state of its own so only pageRank runs
+     * once per solver.
+     */
+    @State(Scope.Thread)
+    public static class SolverState {
+        @Param({"JACOBI", "GAUSS_SEIDEL", "ADAPTIVE", "EXTRAPOLATION"})
+        public PageRankConfig.Solver _solver;
+    }
+
+    private Graph<String> _undirected;
+    private Graph<String> _directed;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkGraphs input = BenchmarkGraphs.make(_shape, _numVertices, _degree, 42);
+
+        _undirected = BenchmarkGraphs.newGraph(_graphKind, false);
+        input.build(_undirected);
+        _directed = BenchmarkGraphs.newGraph(_graphKind, true);
+        input.build(_directed);
+    }
+
+    @Benchmark
+    public MsfResult<String> primJarnik() {
+        return new MyPrimJarnik<String>().genMinSpanForest(_undirected, null);
+    }
+
+    @Benchmark
+    public Map<CS16Vertex<String>, Double> pageRank(SolverState state) {
+        PageRankConfig config = new PageRankConfig(0.85, 0.0001, 100, PageRankConfig.Norm.L1, state._solver);
+        // the graph is shared by every call, so the sinks must not be linked into it
+        return new MyPageRank<String>(config, true).calcPageRank(_directed);
+    }
+}
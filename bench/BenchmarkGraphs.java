@@ -0,0 +1,177 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * The input graphs of the benchmarks, as a vertex count and parallel
+ * source/target/weight arrays, so every benchmark can build the same graph
+ * into any Graph implementation. The synthetic shapes are seeded, so the
+ * same parameters always give the same graph.
+ */
+final class BenchmarkGraphs {
+
+    // the shapes that aren't one of the links files
+    static final String ERDOS_RENYI = "erdos-renyi";
+    static final String POWER_LAW = "power-law";
+    static final String RMAT = "rmat";
+    static final String GEOMETRIC = "geometric";
+    static final String GRID = "grid";
+
+    final int _numVertices;
+    final int[] _sources;
+    final int[] _targets;
+    final int[] _weights;
+    final int _numEdges;
+
+    private BenchmarkGraphs(int numVertices, int[] sources, int[] targets, int[] weights, int numEdges) {
+        _numVertices = numVertices;
+        _sources = sources;
+        _targets = targets;
+        _weights = weights;
+        _numEdges = numEdges;
+    }
+
+    /**
+     * Makes the edge list for a shape: one of the synthetic shapes, with
+     * about numVertices vertices and an average degree of degree, or the
+     * name of a links file, which ignores the other parameters.
+     */
+    static BenchmarkGraphs make(String shape, int numVertices, int degree, long seed) throws IOException {
+        switch(shape){
+            case ERDOS_RENYI:
+                return erdosRenyi(numVertices, degree, new Random(seed));
+            case POWER_LAW:
+                return generated(GraphGenerator.barabasiAlbert(numVertices, Math.max(1, degree / 2), seed));
+            case RMAT:
+                // the vertex count is rounded down to a power of two
+                int scale = Math.max(1, 31 - Integer.numberOfLeadingZeros(numVertices));
+                return generated(GraphGenerator.rmat(scale, Math.max(1, degree / 2), seed));
+            case GEOMETRIC:
+                return generated(GraphGenerator.geometric(numVertices, Math.sqrt(degree / (Math.PI * numVertices)), seed));
+            case GRID:
+                int side = Math.max(1, (int) Math.sqrt(numVertices));
+                return generated(GraphGenerator.grid(side, side, seed));
+            default:
+                return linksFile(Paths.get(shape));
+        }
+    }
+
+    /**
+     * numVertices * degree / 2 distinct edges between uniformly random
+     * pairs of distinct vertices.
+     */
+    private static BenchmarkGraphs erdosRenyi(int n, int degree, Random random) {
+        int m = (int) Math.min((long) n * degree / 2, (long) n * (n - 1) / 2);
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        Set<Long> used = new HashSet<>(2 * m);
+
+        int k = 0;
+        while(k < m){
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            if(i != j && used.add((long) Math.min(i, j) * n + Math.max(i, j))){
+                sources[k] = i;
+                targets[k] = j;
+                k++;
+            }
+        }
+        return new BenchmarkGraphs(n, sources, targets, weights(m, random), m);
+    }
+
+    /**
+     * The edges of a GraphGenerator, collected into arrays.
+     */
+    private static BenchmarkGraphs generated(GraphGenerator generator) {
+        int capacity = (int) Math.min(generator.expectedNumEdges() + 16, Integer.MAX_VALUE - 8);
+        int[][] edges = {new int[capacity], new int[capacity], new int[capacity]};
+        int[] numEdges = {0};
+
+        generator.generate((source, target, weight) -> {
+            int k = numEdges[0]++;
+            // the geometric edge count is only an estimate
+            if(k == edges[0].length){
+                for(int a = 0; a < 3; a++){
+                    edges[a] = Arrays.copyOf(edges[a], 2 * k);
+                }
+            }
+            edges[0][k] = source;
+            edges[1][k] = target;
+            edges[2][k] = weight;
+        });
+        return new BenchmarkGraphs(generator.getNumVertices(), edges[0], edges[1], edges[2], numEdges[0]);
+    }
+
+    /**
+     * The edges of a links file, numbered in the file's vertex order.
+     */
+    private static BenchmarkGraphs linksFile(Path file) throws IOException {
+        CsrGraph<String> graph = new CsrGraph<>(true);
+        new LinksFileLoader().load(file, graph);
+
+        int m = graph.getNumEdges();
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int k = 0;
+        Iterator<CS16Edge<String>> it = graph.edges();
+        while(it.hasNext()){
+            CS16Edge<String> edge = it.next();
+            sources[k] = edge.getVertexOne().getVertexNumber();
+            targets[k] = edge.getVertexTwo().getVertexNumber();
+            weights[k] = edge.element();
+            k++;
+        }
+        return new BenchmarkGraphs(graph.getNumVertices(), sources, targets, weights, m);
+    }
+
+    private static int[] weights(int m, Random random) {
+        int[] weights = new int[m];
+        for(int k = 0; k < m; k++){
+            weights[k] = 1 + random.nextInt(100);
+        }
+        return weights;
+    }
+
+    /**
+     * Inserts the vertices into graph, then the edges one insertEdge call
+     * at a time, and returns the vertices.
+     */
+    @SuppressWarnings("unchecked")
+    CS16Vertex<String>[] build(Graph<String> graph) {
+        CS16Vertex<String>[] vertices = new CS16Vertex[_numVertices];
+        for(int v = 0; v < _numVertices; v++){
+            vertices[v] = graph.insertVertex("v" + v);
+        }
+        for(int k = 0; k < _numEdges; k++){
+            graph.insertEdge(vertices[_sources[k]], vertices[_targets[k]], _weights[k]);
+        }
+        return vertices;
+    }
+
+    /**
+     * Returns a new empty graph of the named kind: "matrix" for a growable
+     * AdjacencyMatrixGraph or "csr" for a CsrGraph.
+     */
+    static Graph<String> newGraph(String kind, boolean directed) {
+        switch(kind){
+            case "matrix":
+                return AdjacencyMatrixGraph.growable(directed);
+            case "csr":
+                return new CsrGraph<>(directed);
+            default:
+                throw new IllegalArgumentException("Unknown graph kind " + kind + ".");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package graph;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import support.graph.CS16Edge;
+import support.graph.CS16Vertex;
+import support.graph.Graph;
+
+/**
+ * Benchmarks of the Graph methods the algorithms spend their time in:
+ * building a graph with insertEdge, looking edges up with connectingEdge,
+ * and walking the incomingEdges and outgoingEdges of every vertex.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+    // how many connectingEdge calls one invocation makes
+    private static final int LOOKUPS = 1024;
+
+    @Param({"matrix", "csr"})
+    public String _graphKind;
+
+    @Param({BenchmarkGraphs.ERDOS_RENYI, BenchmarkGraphs.POWER_LAW, BenchmarkGraphs.RMAT, BenchmarkGraphs.GEOMETRIC,
+            BenchmarkGraphs.GRID, "olympics_links.txt"})
+    public String _shape;
+
+    @Param({"1000"})
+    public int _numVertices;
+
+    @Param({"8"})
+    public int _degree;
+
+    private BenchmarkGraphs _input;
+    private Graph<String> _graph;
+    private CS16Vertex<String>[] _vertices;
+    // the end vertices of LOOKUPS random existing edges
+    private CS16Vertex<String>[] _lookupFrom;
+    private CS16Vertex<String>[] _lookupTo;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        _input = BenchmarkGraphs.make(_shape, _numVertices, _degree, 42);
+        _graph = BenchmarkGraphs.newGraph(_graphKind, true);
+        _vertices = _input.build(_graph);
+
+        Random random = new Random(7);
+        _lookupFrom = new CS16Vertex[LOOKUPS];
+        _lookupTo = new CS16Vertex[LOOKUPS];
+        for(int k = 0; k < LOOKUPS; k++){
+            int e = random.nextInt(_input._numEdges);
+            _lookupFrom[k] = _vertices[_input._sources[e]];
+            _lookupTo[k] = _vertices[_input._targets[e]];
+        }
+
+        // a CsrGraph builds its rows on the first query, which shouldn't be timed
+        _graph.areAdjacent(_vertices[0], _vertices[0]);
+    }
+
+    /**
+     * Builds the whole graph, one insertEdge call per edge.
+     */
+    @Benchmark
+    public Graph<String> insertEdge() {
+        Graph<String> graph = BenchmarkGraphs.newGraph(_graphKind, true);
+        _input.build(graph);
+        return graph;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void connectingEdge(Blackhole blackhole) {
+        for(int k = 0; k < LOOKUPS; k++){
+            blackhole.consume(_graph.connectingEdge(_lookupFrom[k], _lookupTo[k]));
+        }
+    }
+
+    /**
+     * Walks the incoming edges of every vertex, as MyPageRank does.
+     */
+    @Benchmark
+    public int incomingEdges() {
+        int sum = 0;
+        for(CS16Vertex<String> vertex : _vertices){
+            Iterator<CS16Edge<String>> it = _graph.incomingEdges(vertex);
+            while(it.hasNext()){
+                sum += it.next().element();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Walks the outgoing edges of every vertex.
+     */
+    @Benchmark
+    public int outgoingEdges() {
+        int sum = 0;
+        for(CS16Vertex<String> vertex : _vertices){
+            Iterator<CS16Edge<String>> it = _graph.outgoingEdges(vertex);
+            while(it.hasNext()){
+                sum += it.next().element();
+            }
+        }
+        return sum;
+    }
+}